@@ -0,0 +1,57 @@
+package org.limbo.utils.benchmark;
+
+import org.limbo.utils.reflection.EnhancedBeanUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EnhancedBeanUtils} 的属性拷贝
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnhancedBeanUtilsBenchmark {
+
+    private Order order;
+
+    @Setup
+    public void setup() {
+        this.order = new Order();
+        this.order.setOrderId(1409811653L);
+        this.order.setUserName("brozen");
+        this.order.setAmount(1999);
+        this.order.setTags(Arrays.asList("wechat", "mini-program", "jsapi"));
+        this.order.setCreatedAt(LocalDateTime.of(2026, 10, 18, 13, 15, 40));
+    }
+
+    @Benchmark
+    public Order createAndCopy() {
+        return EnhancedBeanUtils.createAndCopy(order, Order.class);
+    }
+
+    @Benchmark
+    public Order copyPropertiesIgnoreNull() {
+        Order dest = new Order();
+        EnhancedBeanUtils.copyPropertiesIgnoreNull(order, dest);
+        return dest;
+    }
+
+}
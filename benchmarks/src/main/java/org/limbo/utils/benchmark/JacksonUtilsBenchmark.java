@@ -0,0 +1,58 @@
+package org.limbo.utils.benchmark;
+
+import org.limbo.utils.jackson.JacksonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JacksonUtils} 的序列化与反序列化，样例对象包含 {@link LocalDateTime} 字段以覆盖自定义的时间序列化器。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonUtilsBenchmark {
+
+    private Order order;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        this.order = new Order();
+        this.order.setOrderId(1409811653L);
+        this.order.setUserName("brozen");
+        this.order.setAmount(1999);
+        this.order.setTags(Arrays.asList("wechat", "mini-program", "jsapi"));
+        this.order.setCreatedAt(LocalDateTime.of(2026, 10, 18, 13, 15, 40));
+        this.json = JacksonUtils.toJSONString(order);
+    }
+
+    @Benchmark
+    public String toJSONString() {
+        return JacksonUtils.toJSONString(order);
+    }
+
+    @Benchmark
+    public Order parseObject() {
+        return JacksonUtils.parseObject(json, Order.class);
+    }
+
+}
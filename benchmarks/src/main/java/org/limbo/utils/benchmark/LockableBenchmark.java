@@ -0,0 +1,115 @@
+package org.limbo.utils.benchmark;
+
+import org.limbo.utils.concurrent.Lockable;
+import org.limbo.utils.concurrent.StampedLockable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Lockable} 与 {@link StampedLockable} 读模式 invoke 的吞吐量，模拟读多写少的配置读取，
+ * 分别在4、16、64个读线程下，以及15个读线程、1个写线程混合的场景下对比。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockableBenchmark {
+
+    private final Lockable<Map<String, String>> lockable = new Lockable<>(newConfig(0));
+
+    private final StampedLockable<Map<String, String>> stampedLockable = new StampedLockable<>(newConfig(0));
+
+    private int version;
+
+    private static Map<String, String> newConfig(int version) {
+        Map<String, String> config = new HashMap<>();
+        for (int i = 0; i < 16; i++) {
+            config.put("key" + i, "value" + i + "-" + version);
+        }
+        return config;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String lockable_4_threads() {
+        return lockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String lockable_16_threads() {
+        return lockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String lockable_64_threads() {
+        return lockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String stamped_4_threads() {
+        return stampedLockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String stamped_16_threads() {
+        return stampedLockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String stamped_64_threads() {
+        return stampedLockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Group("lockable_mixed")
+    @GroupThreads(15)
+    public String lockable_mixed_read() {
+        return lockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Group("lockable_mixed")
+    @GroupThreads(1)
+    public void lockable_mixed_write() {
+        lockable.set(newConfig(++version));
+    }
+
+    @Benchmark
+    @Group("stamped_mixed")
+    @GroupThreads(15)
+    public String stamped_mixed_read() {
+        return stampedLockable.invoke(config -> config.get("key7"), Lockable.Mode.READ);
+    }
+
+    @Benchmark
+    @Group("stamped_mixed")
+    @GroupThreads(1)
+    public void stamped_mixed_write() {
+        stampedLockable.set(newConfig(++version));
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.limbo.utils.benchmark;
+
+import org.limbo.utils.concurrent.buffer.DefaultLongRingBufferSupplier;
+import org.limbo.utils.concurrent.buffer.LongRingBufferSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link LongRingBufferSupplier#getAsLong()} 的吞吐量，可与 {@link RingBufferSupplierBenchmark} 对比装箱的开销。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongRingBufferSupplierBenchmark {
+
+    @Param({"1024"})
+    private int bufferSize;
+
+    private DefaultLongRingBufferSupplier supplier;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AtomicLong table = new AtomicLong(0L);
+        int loadSize = bufferSize >>> 1;
+        this.supplier = new DefaultLongRingBufferSupplier(bufferSize, true, () -> {
+            long end = table.addAndGet(loadSize);
+            long[] ids = new long[loadSize];
+            for (int i = 0; i < loadSize; i++) {
+                ids[i] = end - loadSize + 1 + i;
+            }
+            return ids;
+        });
+        this.supplier.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.supplier.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long getAsLong_1_thread() {
+        return supplier.getAsLong();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long getAsLong_4_threads() {
+        return supplier.getAsLong();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long getAsLong_16_threads() {
+        return supplier.getAsLong();
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.limbo.utils.benchmark;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 基准测试使用的样例对象
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Data
+public class Order {
+
+    private Long orderId;
+
+    private String userName;
+
+    private Integer amount;
+
+    private List<String> tags;
+
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,85 @@
+package org.limbo.utils.benchmark;
+
+import org.limbo.utils.concurrent.buffer.DefaultRingBufferSupplier;
+import org.limbo.utils.concurrent.buffer.ShardedBufferedSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ShardedBufferedSupplier#get()} 的吞吐量，分别在4、16、64个读线程下对比不同的分片数量，1个分片相当于单个 RingBufferSupplier。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedBufferedSupplierBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int shards;
+
+    @Param({"1024"})
+    private int bufferSize;
+
+    private ShardedBufferedSupplier<Long> supplier;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AtomicLong table = new AtomicLong(0L);
+        int loadSize = bufferSize >>> 1;
+        this.supplier = ShardedBufferedSupplier.create(shards, shard -> new DefaultRingBufferSupplier<List<Long>, Long>(bufferSize, true, () -> {
+            List<Long> ids = new ArrayList<>(loadSize);
+            long end = table.addAndGet(loadSize);
+            for (long id = end - loadSize + 1; id <= end; id++) {
+                ids.add(id);
+            }
+            return ids;
+        }));
+        this.supplier.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.supplier.shutdown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long get_4_threads() {
+        return supplier.get();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Long get_16_threads() {
+        return supplier.get();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Long get_64_threads() {
+        return supplier.get();
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.limbo.utils.benchmark;
+
+import org.limbo.utils.encryption.MD5Utils;
+import org.limbo.utils.strings.NamingCaseUtils;
+import org.limbo.utils.time.InstantUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字符串、时间、摘要等无状态工具方法
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringAndTimeUtilsBenchmark {
+
+    private String camelName = "outTradeNoWithCouponFee";
+
+    private String underlineName = "out_trade_no_with_coupon_fee";
+
+    private Instant instant = Instant.parse("2026-10-18T05:15:40Z");
+
+    private String md5Origin = "appid=wx2421b1c4370ec43b&mch_id=10000100&nonce_str=5d2b6c2a8db53831f7eda20af46e531c";
+
+    @Benchmark
+    public String camelToUnderline() {
+        return NamingCaseUtils.camelToUnderline(camelName);
+    }
+
+    @Benchmark
+    public String underlineToCamel() {
+        return NamingCaseUtils.underlineToCamel(underlineName);
+    }
+
+    @Benchmark
+    public Instant beginningOfDay() {
+        return InstantUtils.beginningOfDay(instant);
+    }
+
+    @Benchmark
+    public String formatYMDHMS() {
+        return InstantUtils.formatYMDHMS(instant);
+    }
+
+    @Benchmark
+    public String md5AndHex() {
+        return MD5Utils.md5AndHex(md5Origin, "UTF-8");
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.limbo.utils.benchmark;
+
+import org.limbo.utils.wechat.StaxXmlDataConverter;
+import org.limbo.utils.wechat.XmlDataConverter;
+import org.limbo.utils.wechat.request.MiniProgramPayOrderQueryRequest;
+import org.limbo.utils.wechat.request.WeChatRequest;
+import org.limbo.utils.wechat.response.MiniProgramPayOrderQueryResponse;
+import org.limbo.utils.wechat.response.MiniProgramUnifiedOrderCallbackResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 微信支付XML报文的序列化与反序列化，反序列化使用支付回调报文，对比JDOM与StAX两种实现。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlDataConverterBenchmark {
+
+    static final String CALLBACK_XML = "<xml>"
+            + "<appid><![CDATA[wx2421b1c4370ec43b]]></appid>"
+            + "<attach><![CDATA[支付测试]]></attach>"
+            + "<bank_type><![CDATA[CFT]]></bank_type>"
+            + "<fee_type><![CDATA[CNY]]></fee_type>"
+            + "<is_subscribe><![CDATA[Y]]></is_subscribe>"
+            + "<mch_id><![CDATA[10000100]]></mch_id>"
+            + "<nonce_str><![CDATA[5d2b6c2a8db53831f7eda20af46e531c]]></nonce_str>"
+            + "<openid><![CDATA[oUpF8uMEb4qRXf22hE3X68TekukE]]></openid>"
+            + "<out_trade_no><![CDATA[1409811653]]></out_trade_no>"
+            + "<result_code><![CDATA[SUCCESS]]></result_code>"
+            + "<return_code><![CDATA[SUCCESS]]></return_code>"
+            + "<sign><![CDATA[B552ED6B279343CB493C5DD0D78AB241]]></sign>"
+            + "<time_end><![CDATA[20140903131540]]></time_end>"
+            + "<total_fee>1</total_fee>"
+            + "<coupon_fee>10</coupon_fee>"
+            + "<coupon_count><![CDATA[1]]></coupon_count>"
+            + "<coupon_fee_0>10</coupon_fee_0>"
+            + "<coupon_id_0><![CDATA[10000]]></coupon_id_0>"
+            + "<coupon_type_0><![CDATA[CASH]]></coupon_type_0>"
+            + "<trade_type><![CDATA[JSAPI]]></trade_type>"
+            + "<transaction_id><![CDATA[1004400740201409030005092168]]></transaction_id>"
+            + "</xml>";
+
+    private XmlDataConverter<MiniProgramPayOrderQueryRequest, MiniProgramPayOrderQueryResponse> requestConverter;
+
+    private XmlDataConverter<WeChatRequest<MiniProgramUnifiedOrderCallbackResponse>, MiniProgramUnifiedOrderCallbackResponse> callbackConverter;
+
+    private StaxXmlDataConverter<WeChatRequest<MiniProgramUnifiedOrderCallbackResponse>, MiniProgramUnifiedOrderCallbackResponse> staxCallbackConverter;
+
+    private MiniProgramPayOrderQueryRequest request;
+
+    @Setup
+    public void setup() {
+        this.requestConverter = new XmlDataConverter<>(MiniProgramPayOrderQueryRequest.class, MiniProgramPayOrderQueryResponse.class);
+        this.callbackConverter = new XmlDataConverter<>(null, MiniProgramUnifiedOrderCallbackResponse.class);
+        this.staxCallbackConverter = new StaxXmlDataConverter<>(null, MiniProgramUnifiedOrderCallbackResponse.class);
+
+        this.request = new MiniProgramPayOrderQueryRequest();
+        this.request.setAppid("wx2421b1c4370ec43b");
+        this.request.setMchId("10000100");
+        this.request.setOutTradeNo("1409811653");
+        this.request.setNonceStr("5d2b6c2a8db53831f7eda20af46e531c");
+        this.request.setSign("B552ED6B279343CB493C5DD0D78AB241");
+    }
+
+    @Benchmark
+    public String serialize() {
+        return requestConverter.serialize(request);
+    }
+
+    @Benchmark
+    public MiniProgramUnifiedOrderCallbackResponse deserialize() {
+        return callbackConverter.deserialize(CALLBACK_XML);
+    }
+
+    @Benchmark
+    public MiniProgramUnifiedOrderCallbackResponse deserializeStax() {
+        return staxCallbackConverter.deserialize(CALLBACK_XML);
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020-2024 Limbo Team (https://github.com/limbo-world).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.limbo.utils.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 按key加锁的分段锁，如按订单号处理支付回调，替代 <code>synchronized(key.intern())</code>。
+ * <br/>
+ * 锁的数量固定，key按哈希值映射到其中一个读写锁上，内存占用不随key的数量增长；不同的key可能映射到同一个锁上，此时会互相阻塞。
+ * 每个锁对象之后有填充字段，尽量减少相邻锁之间的伪共享；锁状态保存在单独分配的同步器对象中，填充只在分配顺序不变时有效，不能完全避免伪共享。
+ * <br/>
+ * 持有一个key的锁时，不应再申请其他key的锁，否则两个key映射到不同的锁、且加锁顺序相反时会死锁。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class KeyedLocks<K> {
+
+    /**
+     * 分段锁
+     */
+    private final ReadWriteLock[] stripes;
+
+    /**
+     * 计算分段下标的掩码
+     */
+    private final int mask;
+
+    /**
+     * 使用CPU核数4倍的锁数量
+     */
+    public KeyedLocks() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param stripes 锁的数量，会向上取整为2的n次幂
+     */
+    public KeyedLocks(int stripes) {
+        if (stripes <= 0 || stripes > (1 << 30)) {
+            throw new IllegalArgumentException("stripes must be in (0, 2^30]");
+        }
+
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReadWriteLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new PaddedReadWriteLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 锁的数量
+     */
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * 返回key映射到的读写锁，相同的key总是返回同一个锁
+     */
+    public ReadWriteLock getLock(K key) {
+        Objects.requireNonNull(key, "key");
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * 申请key的锁后执行操作
+     * @param key 加锁的key
+     * @param operation 操作
+     * @param mode 加锁模式
+     * @see Lockable.Mode
+     */
+    public void run(K key, Runnable operation, Lockable.Mode mode) {
+        Objects.requireNonNull(operation, "operation");
+        invoke(key, () -> {
+            operation.run();
+            return null;
+        }, mode);
+    }
+
+    /**
+     * 申请key的锁后执行操作，并返回操作的结果
+     * @param key 加锁的key
+     * @param operation 操作
+     * @param mode 加锁模式
+     * @param <R> 操作返回结果类型
+     * @return 操作返回结果
+     */
+    public <R> R invoke(K key, Supplier<R> operation, Lockable.Mode mode) {
+        Objects.requireNonNull(operation, "operation");
+        Lock lock;
+        switch (mode) {
+            case READ:
+                lock = getLock(key).readLock();
+                break;
+
+            case WRITE:
+                lock = getLock(key).writeLock();
+                break;
+
+            default:
+                throw new IllegalArgumentException("未知的加锁模式：" + mode);
+        }
+
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 带填充的读写锁，尽力而为的伪共享优化。填充字段只在读写锁对象上，锁状态保存在构造时单独分配的同步器对象中，
+     * 连续构造时同步器通常紧随读写锁对象分配，相邻两个锁的同步器之间会间隔填充字段；
+     * 但JVM不保证对象的分配与GC后的排列顺序，同步器本身没有填充，不能保证不同锁的同步器不在同一缓存行上。
+     */
+    @SuppressWarnings("unused")
+    private static class PaddedReadWriteLock extends ReentrantReadWriteLock {
+
+        private static final long serialVersionUID = 1L;
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+    }
+
+}
@@ -23,6 +23,8 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
+ * 基于读写锁的可锁变量。读多写少且读操作无副作用时，可以使用 {@link StampedLockable}，读操作优先乐观读，不修改共享的读锁计数。
+ *
  * @author Brozen
  * @since 1.0
  */
@@ -88,6 +90,7 @@ public class Lockable<T> {
 
             case WRITE:
                 runInWriteLock(operation);
+                break;
 
             default:
                 throw new IllegalArgumentException("未知的加锁模式：" + mode);
@@ -172,7 +175,7 @@ public class Lockable<T> {
     /**
      * 加锁模式，支持读锁、写锁
      */
-    enum Mode {
+    public enum Mode {
         /**
          * 读锁
          */
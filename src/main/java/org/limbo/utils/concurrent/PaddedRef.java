@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-2024 Limbo Team (https://github.com/limbo-world).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.limbo.utils.concurrent;
+
+/**
+ * 带缓存行填充的引用，适用于被多个CPU核心频繁写入的引用，如多个线程竞争更新的状态、计数。
+ * <br/>
+ * 引用的对象之后有填充字段，连续分配的多个 PaddedRef 引用的对象之间至少间隔一个缓存行，一个引用的写入不会使其他引用所在的缓存行失效。
+ * 每个实例额外占用约56字节，读多写少的引用直接使用 {@link Ref} 即可。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@SuppressWarnings("unused")
+public class PaddedRef<T> extends Ref<T> {
+
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    /**
+     * 构造一个引用值为空的 PaddedRef
+     */
+    public PaddedRef() {
+        super();
+    }
+
+    /**
+     * 构造一个引用指定值的 PaddedRef
+     * @param value 引用的对象
+     */
+    public PaddedRef(T value) {
+        super(value);
+    }
+
+}
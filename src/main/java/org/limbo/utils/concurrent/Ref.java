@@ -23,10 +23,14 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
 
 /**
  * 引用，可以在lambda或匿名类中用来修改变量
  * 线程安全
+ * <br/>
+ * 被多个CPU核心频繁写入的引用，可以使用 {@link PaddedRef} 避免与相邻对象的伪共享。
  *
  * @author Brozen
  * @since 2019/12/4
@@ -70,14 +74,76 @@ public class Ref<T> {
     }
 
     /**
-     * 设置 Ref 引用的对象，使用 CAS 方式更新，当多个线程并发调用时，多个值会依次被设置给引用。
+     * 设置 Ref 引用的对象，volatile 写，写入后对其他线程立即可见。
      * @param value 引用的对象
      */
     public void set(T value) {
-        T copy;
-        do {
-            copy = (T) this.value;
-        } while (!UPDATER.compareAndSet(this, copy, value));
+        this.value = value;
+    }
+
+    /**
+     * 延迟设置 Ref 引用的对象，只保证此前的写操作不会被重排到此写操作之后，不保证写入后对其他线程立即可见，开销低于 {@link #set(Object)}。
+     * 适用于写入后还会通过其他 volatile 写或锁发布的场景，如清理已消费的槽位。
+     * @param value 引用的对象
+     */
+    public void lazySet(T value) {
+        UPDATER.lazySet(this, value);
+    }
+
+    /**
+     * 设置 Ref 引用的对象，并返回设置前引用的对象。
+     * @param value 引用的对象
+     * @return 设置前引用的对象
+     */
+    @SuppressWarnings("unchecked")
+    public T getAndSet(T value) {
+        return (T) UPDATER.getAndSet(this, value);
+    }
+
+    /**
+     * 使用 CAS 方式更新引用的对象，并返回更新前引用的对象。并发更新失败时会重试，更新函数可能被调用多次，不应有副作用。
+     * @param updater 更新函数，参数为当前引用的对象
+     * @return 更新前引用的对象
+     */
+    @SuppressWarnings("unchecked")
+    public T getAndUpdate(UnaryOperator<T> updater) {
+        Objects.requireNonNull(updater, "updater");
+        return (T) UPDATER.getAndUpdate(this, value -> updater.apply((T) value));
+    }
+
+    /**
+     * 使用 CAS 方式更新引用的对象，并返回更新后引用的对象。并发更新失败时会重试，更新函数可能被调用多次，不应有副作用。
+     * @param updater 更新函数，参数为当前引用的对象
+     * @return 更新后引用的对象
+     */
+    @SuppressWarnings("unchecked")
+    public T updateAndGet(UnaryOperator<T> updater) {
+        Objects.requireNonNull(updater, "updater");
+        return (T) UPDATER.updateAndGet(this, value -> updater.apply((T) value));
+    }
+
+    /**
+     * 使用 CAS 方式将当前引用的对象与 x 合并，并返回合并前引用的对象。并发更新失败时会重试，合并函数可能被调用多次，不应有副作用。
+     * @param x 参与合并的对象
+     * @param accumulator 合并函数，第一个参数为当前引用的对象，第二个参数为 x
+     * @return 合并前引用的对象
+     */
+    @SuppressWarnings("unchecked")
+    public T getAndAccumulate(T x, BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator");
+        return (T) UPDATER.getAndAccumulate(this, x, (prev, v) -> accumulator.apply((T) prev, (T) v));
+    }
+
+    /**
+     * 使用 CAS 方式将当前引用的对象与 x 合并，并返回合并后引用的对象。并发更新失败时会重试，合并函数可能被调用多次，不应有副作用。
+     * @param x 参与合并的对象
+     * @param accumulator 合并函数，第一个参数为当前引用的对象，第二个参数为 x
+     * @return 合并后引用的对象
+     */
+    @SuppressWarnings("unchecked")
+    public T accumulateAndGet(T x, BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator");
+        return (T) UPDATER.accumulateAndGet(this, x, (prev, v) -> accumulator.apply((T) prev, (T) v));
     }
 
     /**
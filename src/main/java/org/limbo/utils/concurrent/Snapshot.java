@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020-2024 Limbo Team (https://github.com/limbo-world).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.limbo.utils.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 写时复制的快照容器，适用于读取频繁、很少重建的数据，如缓存的配置Map、列表。
+ * <br/>
+ * 读操作只有一次volatile读，拿到当前版本的快照，不加锁；写操作基于当前版本构建一个新版本，再整体替换引用，
+ * 已拿到旧版本的读操作不受影响。写操作之间通过写锁串行执行，构建新版本的操作只会被调用一次，不会丢失并发的更新。
+ * <br/>
+ * 快照在发布后不应再被修改，写操作应返回新的对象，而不是原地修改当前版本，可以使用 {@link java.util.Collections#unmodifiableMap(java.util.Map)} 等方法包装。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class Snapshot<T> {
+
+    /**
+     * 写锁，只有写操作之间互斥
+     */
+    private final ReentrantLock writeLock;
+
+    /**
+     * 当前版本的快照
+     */
+    private volatile T current;
+
+    public Snapshot() {
+        this(null);
+    }
+
+    public Snapshot(T initial) {
+        this.writeLock = new ReentrantLock();
+        this.current = initial;
+    }
+
+    /**
+     * 读取当前版本的快照，无锁。
+     */
+    public T get() {
+        return current;
+    }
+
+    /**
+     * 读取当前版本的快照，并执行操作，无锁。
+     * @param operation 操作
+     * @param <R> 操作返回结果类型
+     * @return 操作返回结果
+     */
+    public <R> R read(Function<T, R> operation) {
+        Objects.requireNonNull(operation, "operation");
+        return operation.apply(current);
+    }
+
+    /**
+     * 发布一个新版本的快照，申请写锁
+     */
+    public void set(T snapshot) {
+        writeLock.lock();
+        try {
+            this.current = snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 基于当前版本构建新版本的快照并发布，申请写锁。构建过程中读操作仍读取当前版本。
+     * @param updater 构建新版本的操作，参数为当前版本，应返回新的对象
+     * @return 新版本的快照
+     */
+    public T update(UnaryOperator<T> updater) {
+        Objects.requireNonNull(updater, "updater");
+        writeLock.lock();
+        try {
+            T updated = updater.apply(current);
+            this.current = updated;
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020-2024 Limbo Team (https://github.com/limbo-world).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.limbo.utils.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 基于 {@link StampedLock} 的可锁变量，用法与 {@link Lockable} 相同，适用于读多写少的场景。
+ * <br/>
+ * {@link #invoke(Function, Lockable.Mode)} 读模式下先乐观读，不修改锁状态，多核下读操作之间没有缓存行竞争；
+ * 乐观读期间有写操作时，加读锁重新执行。因此读模式的操作可能被执行多次，且可能读取到写操作执行中的不一致状态，
+ * 操作必须没有副作用，其结果只有在校验通过后才会返回。
+ * <br/>
+ * 与 {@link Lockable} 不同，锁不可重入，在写模式的操作中调用 {@link #set(Object)} 等加锁方法会导致死锁。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class StampedLockable<T> {
+
+    private final StampedLock lock;
+
+    private volatile T locked;
+
+    public StampedLockable() {
+        this(null);
+    }
+
+    public StampedLockable(T locked) {
+        this.lock = new StampedLock();
+        this.locked = locked;
+    }
+
+    /**
+     * 设置可锁变量的值，申请写锁
+     */
+    public void set(T object) {
+        long stamp = lock.writeLock();
+        try {
+            this.locked = object;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 读取可锁变量的值，直接返回，无锁。
+     */
+    public T get() {
+        return locked;
+    }
+
+    /**
+     * 申请锁后执行操作。读模式下操作有副作用，不使用乐观读，直接申请读锁。
+     * @param operation 操作
+     * @param mode 加锁模式
+     * @see Lockable.Mode
+     */
+    public void run(Consumer<T> operation, Lockable.Mode mode) {
+        Objects.requireNonNull(operation, "operation");
+        switch (mode) {
+            case READ:
+                invokeInReadLock(value -> {
+                    operation.accept(value);
+                    return null;
+                });
+                break;
+
+            case WRITE:
+                invokeInWriteLock(value -> {
+                    operation.accept(value);
+                    return null;
+                });
+                break;
+
+            default:
+                throw new IllegalArgumentException("未知的加锁模式：" + mode);
+        }
+    }
+
+    /**
+     * 在申请锁后执行操作，并返回操作的结果。读模式下优先乐观读，操作必须没有副作用。
+     * @param operation 操作
+     * @param mode 加锁模式
+     * @param <R> 操作返回结果类型
+     * @return 操作返回结果
+     */
+    public <R> R invoke(Function<T, R> operation, Lockable.Mode mode) {
+        switch (mode) {
+            case READ:
+                return invokeOptimistically(operation);
+
+            case WRITE:
+                return invokeInWriteLock(operation);
+
+            default:
+                throw new IllegalArgumentException("未知的加锁模式：" + mode);
+        }
+    }
+
+    /**
+     * 乐观读执行操作，校验失败时申请读锁重新执行
+     */
+    private <R> R invokeOptimistically(Function<T, R> operation) {
+        Objects.requireNonNull(operation, "operation");
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                R result = operation.apply(locked);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // 读取到写操作执行中的不一致状态时，操作可能抛出异常，校验失败说明异常由并发写导致，加读锁重试
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+
+        return invokeInReadLock(operation);
+    }
+
+    /**
+     * 在申请写锁后执行操作，并返回
+     */
+    private <R> R invokeInWriteLock(Function<T, R> operation) {
+        Objects.requireNonNull(operation, "operation");
+        long stamp = lock.writeLock();
+        try {
+            return operation.apply(locked);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 在申请读锁后执行操作，并返回
+     */
+    private <R> R invokeInReadLock(Function<T, R> operation) {
+        long stamp = lock.readLock();
+        try {
+            return operation.apply(locked);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应加载的统计器，统计数据消费速率与数据加载耗时，并据此计算加载阈值与单次加载的数据量。
+ * <br/>
+ * 一次加载期间被消费的数据量约为 <code>消费速率 * 加载耗时</code>，加载阈值与单次加载量都按此值的 {@link #SAFETY_FACTOR} 倍提高，
+ * 保证流量突增时，缓冲区在加载完成前不会被读空；流量下降后，两者逐渐回落到配置的基础值。
+ * <br/>
+ * 加载在剩余数据量低于加载阈值时触发，此时缓冲区的空闲容量为 <code>bufferSize - 加载阈值</code>，单次加载量不超过此值，
+ * 否则加载线程需要等待读操作释放槽位，期间一直占用加载许可。加载阈值最多提高到为单次加载预留一半缓冲区（或基础加载量），
+ * 避免流量过高时单次加载量被压缩到过小。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+class AdaptiveLoadTracker {
+
+    /**
+     * 指数加权移动平均的权重，越大越偏向最近一次的统计值
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    /**
+     * 预留的安全倍数
+     */
+    private static final double SAFETY_FACTOR = 2.0;
+
+    /**
+     * 上次统计之后被消费的数据量
+     */
+    private final LongAdder consumed;
+
+    /**
+     * 上次统计的时间
+     */
+    private long lastSampleNanos;
+
+    /**
+     * 消费速率，每纳秒消费的数据量
+     */
+    private double consumeRate;
+
+    /**
+     * 加载耗时，纳秒
+     */
+    private double loadLatency;
+
+    /**
+     * 当前的加载阈值
+     */
+    private volatile long loadThreshold;
+
+    /**
+     * 当前的单次加载量
+     */
+    private volatile int loadBatchSize;
+
+
+    AdaptiveLoadTracker(long loadThreshold, int loadBatchSize) {
+        this.consumed = new LongAdder();
+        this.lastSampleNanos = System.nanoTime();
+        this.loadThreshold = loadThreshold;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+
+    /**
+     * 记录被消费的数据量
+     */
+    void recordConsumed(long count) {
+        this.consumed.add(count);
+    }
+
+
+    /**
+     * 记录一次数据加载，并重新计算加载阈值与单次加载量。
+     *
+     * @param latencyNanos 本次加载耗时
+     * @param bufferSize 缓冲区大小，不大于0时不调整加载阈值与单次加载量
+     * @param baseThreshold 基础加载阈值
+     * @param baseBatchSize 基础单次加载量
+     */
+    synchronized void recordLoad(long latencyNanos, long bufferSize, long baseThreshold, int baseBatchSize) {
+        long now = System.nanoTime();
+        long elapsed = Math.max(1L, now - this.lastSampleNanos);
+        this.lastSampleNanos = now;
+
+        double rate = (double) this.consumed.sumThenReset() / elapsed;
+        this.consumeRate = EWMA_ALPHA * rate + (1 - EWMA_ALPHA) * this.consumeRate;
+        this.loadLatency = EWMA_ALPHA * latencyNanos + (1 - EWMA_ALPHA) * this.loadLatency;
+
+        // 一次加载期间预计被消费的数据量
+        double expected = this.consumeRate * this.loadLatency * SAFETY_FACTOR;
+        if (bufferSize <= 0) {
+            this.loadThreshold = baseThreshold;
+            this.loadBatchSize = baseBatchSize;
+            return;
+        }
+
+        // 加载阈值至少为单次加载预留一半缓冲区，基础加载量更大时预留基础加载量
+        long reserved = Math.max(baseBatchSize, bufferSize >>> 1);
+        this.loadThreshold = clamp(expected, baseThreshold, Math.max(baseThreshold, bufferSize - reserved));
+
+        // 单次加载量不超过触发加载时缓冲区的空闲容量
+        long maxBatchSize = Math.min(Math.max(1L, bufferSize - this.loadThreshold), Integer.MAX_VALUE);
+        this.loadBatchSize = (int) clamp(expected, Math.min(baseBatchSize, maxBatchSize), maxBatchSize);
+    }
+
+
+    private long clamp(double value, long min, long max) {
+        if (value <= min) {
+            return min;
+        }
+        return value >= max ? max : (long) value;
+    }
+
+
+    long getLoadThreshold() {
+        return this.loadThreshold;
+    }
+
+
+    int getLoadBatchSize() {
+        return this.loadBatchSize;
+    }
+
+}
@@ -1,12 +1,19 @@
 package org.limbo.utils.concurrent.buffer;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
 /**
@@ -19,18 +26,89 @@ import java.util.concurrent.locks.LockSupport;
 public abstract class AsyncLoadBufferedSupplier<T> extends BufferedSupplier<T> {
 
     /**
-     * 加载数据时用到的线程池
+     * 熔断器半开探测进行中时，其他加载任务重新检测熔断状态的间隔
      */
-    private final Executor loadExecutor;
+    private static final long CIRCUIT_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 加载数据时用到的线程池，未指定时，启动生产者时创建线程数与加载任务数相同的线程池
+     */
+    private Executor loadExecutor;
+
+    /**
+     * 启动生产者时自行创建的线程池，关闭生产者时一并关闭
+     */
+    private ExecutorService ownedExecutor;
+
+    /**
+     * 是否在虚拟线程中执行加载任务，需要在启动生产者之前设置，只在未指定线程池时生效。
+     * 运行时不支持虚拟线程（JDK 21以下）时，仍使用平台线程。
+     */
+    @Setter
+    @Getter
+    private boolean virtualThreadLoader = false;
+
+    /**
+     * 共享的加载调度器，需要在启动生产者之前设置。设置后由调度器的线程加载数据，不再创建加载任务，
+     * 指定的线程池、加载任务数量、加载线程空闲策略都不生效。
+     */
+    @Setter
+    @Getter
+    private SupplierLoadScheduler loadScheduler;
+
+    /**
+     * 在调度器中的加载状态，使用调度器时不为null
+     */
+    private volatile SupplierLoadScheduler.LoadEntry scheduledEntry;
 
     /**
      * 异步加载任务
      */
-    private AsyncLoadTask loadTask;
+    private volatile List<AsyncLoadTask> loadTasks;
+
+    /**
+     * 并行的加载任务数量，需要在启动生产者之前设置。加载任务数量大于1时，缓冲区需要支持多生产者并发写入，
+     * 见 {@link #supportsConcurrentPublish()}，否则启动时抛出异常；指定的线程池中可用的线程数不能少于加载任务数量。
+     */
+    @Setter
+    @Getter
+    private int loaderParallelism = 1;
+
+    /**
+     * 加载线程没有收到加载许可时的空闲策略，需要在启动生产者之前设置
+     */
+    @Setter
+    @Getter
+    private LoadIdleStrategy loadIdleStrategy = LoadIdleStrategy.BLOCKING;
+
+    /**
+     * 加载失败后的退避策略，连续失败时，加载任务在退避间隔内不会重试，期间收到的加载许可会合并为一次。
+     * 默认不退避，加载失败后立即重试；需要退避时可以设置为 {@link LoadBackoff#exponential(Duration, Duration)}
+     */
+    @Setter
+    @Getter
+    private LoadBackoff loadBackoff = LoadBackoff.none();
+
+    /**
+     * 加载熔断器，为null时不熔断，需要在启动生产者之前设置
+     */
+    @Setter
+    @Getter
+    private LoadCircuitBreaker loadCircuitBreaker;
+
+    /**
+     * 连续加载失败的次数，多个加载任务共享
+     */
+    private final AtomicInteger loadFailures = new AtomicInteger(0);
+
+    /**
+     * 正在进行的加载数量
+     */
+    private final AtomicInteger activeLoads = new AtomicInteger(0);
 
 
     public AsyncLoadBufferedSupplier(int bufferSize, boolean eagerLoad) {
-        this(bufferSize, eagerLoad, Executors.newSingleThreadExecutor());
+        this(bufferSize, eagerLoad, null);
     }
 
 
@@ -41,33 +119,146 @@ public abstract class AsyncLoadBufferedSupplier<T> extends BufferedSupplier<T> {
 
 
     /**
-     * 启动异步加载任务
+     * 启动异步加载任务，设置了加载调度器时注册到调度器
      */
     @Override
     protected void onStart() {
-        this.loadTask = new AsyncLoadTask();
-        this.loadExecutor.execute(this.loadTask);
+        SupplierLoadScheduler scheduler = this.loadScheduler;
+        if (scheduler != null) {
+            this.scheduledEntry = scheduler.register(this);
+            return;
+        }
+
+        int parallelism = this.loaderParallelism;
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("loaderParallelism must be positive");
+        }
+        if (parallelism > 1 && !supportsConcurrentPublish()) {
+            throw new IllegalStateException("缓冲区不支持多个加载任务并发写入，loaderParallelism不能大于1：" + getName());
+        }
+        if (this.loadExecutor == null) {
+            this.ownedExecutor = newLoadExecutor(parallelism);
+            this.loadExecutor = this.ownedExecutor;
+        }
+
+        List<AsyncLoadTask> tasks = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            tasks.add(new AsyncLoadTask());
+        }
+        this.loadTasks = tasks;
+        for (AsyncLoadTask task : tasks) {
+            this.loadExecutor.execute(task);
+        }
+    }
+
+
+    /**
+     * 是否支持多个加载任务并发调用 {@link #doLoadData()} 发布数据，不支持时 {@link #loaderParallelism} 不能大于1。
+     * 默认不支持，子类的发布操作线程安全时覆写此方法。
+     */
+    protected boolean supportsConcurrentPublish() {
+        return false;
     }
 
 
     /**
-     * 关闭生产者时再触发一次加载，防止关闭生产者时加载任务正在等待，从而永远无法被唤醒。
+     * 创建加载任务使用的线程池。开启虚拟线程加载且运行时支持虚拟线程时，每个加载任务在单独的虚拟线程中执行，
+     * 加载任务空闲等待、数据加载器阻塞IO时，虚拟线程让出载体线程；否则创建线程数与加载任务数相同的平台线程池。
+     */
+    private ExecutorService newLoadExecutor(int parallelism) {
+        if (this.virtualThreadLoader) {
+            String name = getName() == null ? "buffered-supplier" : getName();
+            ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor(name + "-loader-");
+            if (executor != null) {
+                return executor;
+            }
+            log.warn("当前运行时不支持虚拟线程，使用平台线程执行加载任务：{}", getName());
+        }
+
+        return parallelism == 1 ? Executors.newSingleThreadExecutor() : Executors.newFixedThreadPool(parallelism);
+    }
+
+
+    /**
+     * 关闭生产者时唤醒加载线程，防止关闭生产者时加载任务正在等待，从而永远无法被唤醒。
+     * 自行创建的线程池会在加载任务退出后关闭，可以通过 {@link #awaitTermination(long, TimeUnit)} 等待其终止；使用调度器时，从调度器中移除。
      */
     @Override
     protected void onShutdown() {
-        if (this.loadTask != null) {
-            this.loadTask.permitLoadData();
-            this.loadTask = null;
+        SupplierLoadScheduler.LoadEntry entry = this.scheduledEntry;
+        if (entry != null) {
+            this.loadScheduler.deregister(entry);
+            this.scheduledEntry = null;
+        }
+
+        List<AsyncLoadTask> tasks = this.loadTasks;
+        if (tasks != null) {
+            for (AsyncLoadTask task : tasks) {
+                task.wakeup();
+            }
+            this.loadTasks = null;
+        }
+
+        ExecutorService executor = this.ownedExecutor;
+        if (executor != null) {
+            executor.shutdown();
+            this.loadExecutor = null;
         }
     }
 
 
     /**
-     * 在线程池中提交数据加载任务，并触发一次加载
+     * {@inheritDoc}
+     * 自行创建了加载线程池时，等待线程池终止。
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        ExecutorService executor = this.ownedExecutor;
+        if (executor != null && !isRunning() && !executor.awaitTermination(timeout, unit)) {
+            return false;
+        }
+        return super.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isLoading() {
+        return this.activeLoads.get() > 0;
+    }
+
+
+    /**
+     * 触发一次加载。有多个加载任务时，优先许可空闲的加载任务，使多个加载任务并行加载；
+     * 所有加载任务都在加载中时，许可第一个加载任务，在其本次加载完成后再加载一次，保证不会丢失加载请求。
      */
     @Override
     protected void loadData() {
-        Objects.requireNonNull(this.loadTask).permitLoadData();
+        SupplierLoadScheduler.LoadEntry entry = this.scheduledEntry;
+        if (entry != null) {
+            // 调度器停止后不会再加载数据，缓存中还有数据时继续读取，没有数据时由调度器抛出异常，读操作立即失败
+            if (this.loadScheduler.isRunning() || getRemainingSize() <= 0) {
+                this.loadScheduler.schedule(entry);
+            }
+            return;
+        }
+
+        // 生产者关闭后加载任务已被移除，与关闭并发的读操作不再触发加载，由读操作自行检测生产者状态
+        List<AsyncLoadTask> tasks = this.loadTasks;
+        if (tasks == null) {
+            return;
+        }
+        if (tasks.size() > 1) {
+            for (AsyncLoadTask task : tasks) {
+                if (task.permitIfIdle()) {
+                    return;
+                }
+            }
+        }
+        tasks.get(0).permitLoadData();
     }
 
 
@@ -77,6 +268,141 @@ public abstract class AsyncLoadBufferedSupplier<T> extends BufferedSupplier<T> {
     protected abstract void doLoadData();
 
 
+    /**
+     * 执行一次数据加载。合并的加载许可到达时，数据可能已被之前的加载刷新，子类可以跳过此次加载并返回false；
+     * 被跳过的加载不计入加载耗时，也不改变熔断状态。默认直接调用 {@link #doLoadData()}。
+     *
+     * @return 是否执行了数据加载
+     */
+    protected boolean tryLoadData() {
+        doLoadData();
+        return true;
+    }
+
+
+    /**
+     * 执行一次数据加载，并根据加载结果更新连续失败次数与熔断状态。熔断未放行时不会加载。
+     *
+     * @return 下次加载前需要暂停的时长，纳秒：加载失败时为退避间隔，熔断未放行时为熔断剩余时长，加载成功时为0
+     */
+    long executeLoad() {
+        // 先计数再检测是否已停止加载，优雅关闭停止加载后，要么能看到此次加载，要么此次加载能看到已停止
+        this.activeLoads.incrementAndGet();
+        try {
+            // 已停止加载时，跳过停止前下发的加载许可
+            if (isLoadStopped()) {
+                return 0L;
+            }
+
+            LoadCircuitBreaker breaker = this.loadCircuitBreaker;
+            if (breaker != null && !breaker.tryAcquirePermission()) {
+                return Math.max(breaker.remainingOpenNanos(), CIRCUIT_POLL_NANOS);
+            }
+
+            return doLoadWithBreaker(breaker);
+        } finally {
+            this.activeLoads.decrementAndGet();
+        }
+    }
+
+
+    /**
+     * 执行数据加载，加载成功时重置连续失败次数并关闭熔断，失败时返回退避间隔
+     */
+    private long doLoadWithBreaker(LoadCircuitBreaker breaker) {
+        long loadStart = System.nanoTime();
+        try {
+            if (!tryLoadData()) {
+                // 跳过的加载不是探测结果，半开状态下恢复打开，由下次加载重新探测
+                if (breaker != null) {
+                    breaker.onSkipped();
+                }
+                return 0L;
+            }
+            recordLoadLatency(System.nanoTime() - loadStart);
+
+            this.loadFailures.set(0);
+            if (breaker != null && breaker.onSuccess()) {
+                onLoadCircuitClosed();
+            }
+            return 0L;
+        } catch (Exception e) {
+            recordLoadFailure(System.nanoTime() - loadStart);
+            log.error("数据加载任务异常", e);
+            onLoadError(e);
+
+            int failures = this.loadFailures.incrementAndGet();
+            if (breaker != null && breaker.onFailure()) {
+                onLoadCircuitOpened();
+            }
+            return Objects.requireNonNull(this.loadBackoff).delayNanos(failures);
+        }
+    }
+
+
+    /**
+     * 熔断打开时读操作不会再触发加载，加载方需要保留加载许可，保证熔断结束后会进行探测加载；已停止加载时不保留
+     */
+    boolean isLoadPermitRetained() {
+        LoadCircuitBreaker breaker = this.loadCircuitBreaker;
+        return breaker != null && breaker.isOpen() && !isLoadStopped();
+    }
+
+
+    /**
+     * 缓冲区的填充率，即剩余数据量与缓冲区大小的比值，加载调度器优先加载填充率低的生产者
+     */
+    protected double getFillRatio() {
+        long bufferSize = getBufferSize();
+        if (bufferSize <= 0) {
+            return getRemainingSize() > 0 ? 1.0 : 0.0;
+        }
+        return Math.min(1.0, (double) getRemainingSize() / bufferSize);
+    }
+
+
+    /**
+     * 加载熔断是否打开，打开或半开状态下都认为熔断打开
+     */
+    protected boolean isLoadCircuitOpen() {
+        LoadCircuitBreaker breaker = this.loadCircuitBreaker;
+        return breaker != null && breaker.isOpen();
+    }
+
+
+    /**
+     * 加载熔断打开且缓存中没有数据时，读操作应当立即失败，不再等待数据加载
+     */
+    protected boolean shouldFailFast() {
+        return isLoadCircuitOpen() && getRemainingSize() <= 0;
+    }
+
+
+    /**
+     * 加载熔断打开时的回调，在加载线程中执行。熔断期间不会再加载数据，子类需要唤醒正在等待数据发布的读操作，
+     * 由读操作根据 {@link #shouldFailFast()} 立即失败
+     */
+    protected void onLoadCircuitOpened() {
+        // ignore
+    }
+
+
+    /**
+     * 加载熔断关闭时的回调，在加载线程中执行
+     */
+    protected void onLoadCircuitClosed() {
+        // ignore
+    }
+
+
+    /**
+     * 读操作立即失败时使用的异常
+     */
+    protected IllegalStateException newFailFastException() {
+        return new IllegalStateException("数据加载已熔断：" + getName());
+    }
+
+
     /**
      * 当加载数据发生异常时的回调。
      */
@@ -90,41 +416,112 @@ public abstract class AsyncLoadBufferedSupplier<T> extends BufferedSupplier<T> {
      */
     class AsyncLoadTask implements Runnable {
 
-        private final long PARK_DURATION = Duration.ofMillis(100).toNanos();
-
         private final AtomicBoolean permitted = new AtomicBoolean(false);
 
+        /**
+         * 是否正在加载数据
+         */
+        private volatile boolean loading = false;
+
+        /**
+         * 执行加载任务的线程，下发加载许可时直接唤醒此线程
+         */
+        private volatile Thread runner;
+
         @Override
         public void run() {
+            this.runner = Thread.currentThread();
+            LoadIdleStrategy idleStrategy = Objects.requireNonNull(loadIdleStrategy);
+            int idleCount = 0;
+
             while (isRunning()) {
+                // 检测是否被许可加载数据，没有许可时按空闲策略等待
+                if (!permitted.compareAndSet(true, false)) {
+                    idleStrategy.idle(idleCount++);
+                    continue;
+                }
+                idleCount = 0;
+
+                // 再次检测
+                if (!isRunning()) {
+                    break;
+                }
+
+                long pauseNanos;
+                this.loading = true;
                 try {
-                    // 检测是否被许可加载数据
-                    if (!permitted.compareAndSet(true, false)) {
-                        LockSupport.parkNanos(PARK_DURATION);
-                        continue;
-                    }
-
-                    // 再次检测
-                    if (!isRunning()) {
-                        break;
-                    }
-
-                    doLoadData();
-                } catch (Exception e) {
-                    log.error("数据加载任务异常", e);
-                    onLoadError(e);
+                    pauseNanos = executeLoad();
+                } finally {
+                    this.loading = false;
+                }
+
+                // 加载失败时按退避策略暂停，熔断打开时保留许可，等待熔断时长结束后再进行探测加载
+                if (isLoadPermitRetained()) {
+                    permitted.set(true);
+                }
+                if (pauseNanos > 0) {
+                    pause(pauseNanos);
                 }
             }
+
+            this.runner = null;
         }
 
 
         /**
-         * 发布一个加载数据的许可
+         * 暂停加载线程，直到超时或生产者停止。暂停期间下发的加载许可会保留，暂停结束后再执行。
+         */
+        private void pause(long nanos) {
+            long deadline = System.nanoTime() + nanos;
+            long remaining = nanos;
+            while (remaining > 0 && isRunning()) {
+                LockSupport.parkNanos(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+
+
+        /**
+         * 发布一个加载数据的许可，并唤醒加载线程
          */
         public void permitLoadData() {
             // 使用原子boolean变量CAS更新许可，可以防止重复下发许可，保证多次调用许可方法时，也只执行一次数据加载动作
             // 其他的类似Semaphore、CyclicBarrier也行，但还是有锁的，不如原子操作方便快捷
-            this.permitted.compareAndSet(false, true);
+            if (this.permitted.compareAndSet(false, true)) {
+                // 许可只有下发成功时才需要唤醒，加载线程还未启动或正在加载时，之后会先检测许可，不会丢失唤醒
+                Thread runner = this.runner;
+                if (runner != null && !this.loading) {
+                    LockSupport.unpark(runner);
+                }
+            }
+        }
+
+
+        /**
+         * 加载任务空闲（未在加载且未被许可）时，发布一个加载数据的许可
+         * @return 是否发布了许可
+         */
+        boolean permitIfIdle() {
+            if (this.loading || !this.permitted.compareAndSet(false, true)) {
+                return false;
+            }
+
+            Thread runner = this.runner;
+            if (runner != null) {
+                LockSupport.unpark(runner);
+            }
+            return true;
+        }
+
+
+        /**
+         * 唤醒加载线程，使其重新检测生产者状态
+         */
+        void wakeup() {
+            Thread runner = this.runner;
+            if (runner != null) {
+                LockSupport.unpark(runner);
+            }
         }
 
     }
@@ -3,8 +3,14 @@ package org.limbo.utils.concurrent.buffer;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Collection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
 /**
@@ -15,6 +21,11 @@ import java.util.function.Supplier;
  */
 public abstract class BufferedSupplier<T> implements Supplier<T> {
 
+    /**
+     * 优雅关闭、等待终止时，检测缓冲区与加载状态的间隔
+     */
+    private static final long TERMINATION_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
     /**
      * 生产者名称，用于日志跟踪
      */
@@ -38,13 +49,35 @@ public abstract class BufferedSupplier<T> implements Supplier<T> {
      * 缓冲数据加载因子，当缓存中剩余的数据量低于缓存容量的0.75时，会触发数据加载
      */
     @Setter
+    @Getter
     private float loadFactor;
 
+    /**
+     * 单次加载的数据量，默认为缓冲区大小的一半。数据加载器支持指定加载数量时使用，开启自适应加载时为基础加载量。
+     */
+    @Setter
+    private int loadBatchSize;
+
+    /**
+     * 自适应加载统计器，开启自适应加载时不为null
+     */
+    private volatile AdaptiveLoadTracker loadTracker;
+
+    /**
+     * 指标统计，开启指标统计时不为null
+     */
+    private volatile SupplierMetricsRecorder metricsRecorder;
+
     /**
      * 此生产者是否在运行中
      */
     private volatile boolean running;
 
+    /**
+     * 是否已停止加载数据，优雅关闭时先停止加载，再等待读操作读完缓冲区
+     */
+    private volatile boolean loadStopped;
+
 
     public BufferedSupplier(long bufferSize) {
         this(bufferSize, false);
@@ -60,11 +93,48 @@ public abstract class BufferedSupplier<T> implements Supplier<T> {
         this.bufferSize = bufferSize;
         this.eagerLoad = eagerLoad;
         this.loadFactor = loadFactor;
+        this.loadBatchSize = (int) Math.max(1L, Math.min(bufferSize >>> 1, Integer.MAX_VALUE));
 
         this.running = false;
     }
 
 
+    /**
+     * 批量获取多个元素。默认实现是逐个调用{@link #get()}，子类可以覆写此方法，一次性申请多个元素。
+     * 读取失败时，返回的列表中元素数量可能少于请求的数量，{@link #onGetError(Throwable)} 返回null时不会添加到列表中。
+     *
+     * @param n 需要获取的元素数量
+     * @return 获取到的元素
+     */
+    public List<T> get(int n) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<T> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            T value = get();
+            // 读取失败，与批量读取的实现一致，不再继续读取
+            if (value == null) {
+                break;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+
+    /**
+     * 异步获取一个元素。默认实现是在 {@link ForkJoinPool#commonPool()} 中调用 {@link #get()}，
+     * 等待数据时会阻塞公共线程池中的线程，子类可以覆写此方法，在数据发布后再完成返回的Future。
+     *
+     * @return 获取元素的Future
+     */
+    public CompletableFuture<T> getAsync() {
+        return CompletableFuture.supplyAsync(this);
+    }
+
+
     /**
      * 获取缓存中剩余可用的元素数量
      */
@@ -76,10 +146,16 @@ public abstract class BufferedSupplier<T> implements Supplier<T> {
      */
     public final void start() {
         // 设置状态
+        this.loadStopped = false;
         this.running = true;
 
-        // 调用钩子方法
-        this.onStart();
+        // 调用钩子方法，启动失败时恢复为停止状态
+        try {
+            this.onStart();
+        } catch (RuntimeException e) {
+            this.running = false;
+            throw e;
+        }
 
         // 加载数据
         if (this.eagerLoad) {
@@ -107,6 +183,9 @@ public abstract class BufferedSupplier<T> implements Supplier<T> {
      */
     public final void shutdown() {
         this.running = false;
+
+        // 调用钩子方法
+        this.onShutdown();
     }
 
 
@@ -117,35 +196,267 @@ public abstract class BufferedSupplier<T> implements Supplier<T> {
 
 
     /**
-     * 检测缓冲区剩余数据量，当数据不足时需要加载数据
+     * 优雅关闭此生产者：停止加载数据，在超时时间内等待读操作读完缓冲区中的数据与正在进行的加载，然后关闭生产者，并取出仍未被读取的数据。
+     * 取出的数据不会再被读取，调用方可以持久化或释放这些数据，如归还已在DB中申请的ID。
+     * 超时后仍在进行的加载，在生产者关闭前发布的数据会被取出；关闭后才发布的数据不会被取出，留在缓冲区中。
+     *
+     * @param timeout 等待读操作读完缓冲区的超时时间，为0时立即取出剩余数据并关闭
+     * @return 关闭时仍未被读取的数据
+     */
+    public final List<T> shutdownGracefully(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        stopLoading();
+
+        // 等待读操作读完缓冲区
+        while ((isLoading() || !isDrained()) && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(this, TERMINATION_POLL_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+        // 先关闭再取出剩余数据，关闭后读操作无法再读取；超时后仍在进行的加载，在关闭前发布的数据也能取出
+        boolean running = isRunning();
+        shutdown();
+        return running ? drainRemaining() : Collections.<T>emptyList();
+    }
+
+
+    /**
+     * 等待生产者关闭且正在进行的加载完成，自行创建的加载线程池会等待其终止。
+     *
+     * @return 超时前是否已终止，生产者未关闭时，等待到超时后返回false
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (isRunning() || isLoading()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, TERMINATION_POLL_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * 停止加载数据，之后不会再触发新的加载，正在进行的加载不受影响。重新启动生产者后恢复加载。
+     */
+    protected void stopLoading() {
+        this.loadStopped = true;
+    }
+
+
+    /**
+     * 是否已停止加载数据
+     */
+    protected boolean isLoadStopped() {
+        return this.loadStopped;
+    }
+
+
+    /**
+     * 是否有正在进行的数据加载，优雅关闭时据此等待加载完成
+     */
+    protected boolean isLoading() {
+        return false;
+    }
+
+
+    /**
+     * 缓冲区中的数据是否已被读完，优雅关闭时据此等待读操作读完缓冲区。默认根据剩余数据量判断，
+     * 缓存的值不会被读取消费的生产者，需要重写此方法，否则优雅关闭总是等待到超时。
+     */
+    protected boolean isDrained() {
+        return getRemainingSize() <= 0;
+    }
+
+
+    /**
+     * 取出缓冲区中全部未被读取的数据，取出的数据不会再被读操作读取。优雅关闭时，在关闭生产者之后调用。
+     * 默认不支持取出，返回空列表。
+     */
+    protected List<T> drainRemaining() {
+        return Collections.emptyList();
+    }
+
+
+    /**
+     * 检测缓冲区剩余数据量，当数据不足时需要加载数据。已停止加载时不再触发加载。
      */
     protected void checkAndLoadData() {
-        if (needLoadData()) {
+        if (!this.loadStopped && needLoadData()) {
             loadData();
         }
     }
 
 
     /**
-     * 检测是否需要加载数据
+     * 检测是否需要加载数据。开启自适应加载时，加载阈值会根据消费速率与加载耗时提高，但不低于 <code>bufferSize * loadFactor</code>。
      */
     protected boolean needLoadData() {
-        long loadThreshold = (long) (this.bufferSize * this.loadFactor);
+        AdaptiveLoadTracker tracker = this.loadTracker;
+        long loadThreshold = tracker != null ? tracker.getLoadThreshold() : getBaseLoadThreshold();
         return getRemainingSize() < loadThreshold;
     }
 
 
     /**
-     * 加载数据到缓冲区
+     * 根据加载因子计算的加载阈值
      */
-    protected abstract void loadData();
+    private long getBaseLoadThreshold() {
+        return (long) (this.bufferSize * this.loadFactor);
+    }
 
 
     /**
-     * 发布数据到缓存
-     * @param data 待发布的数据
+     * 开启或关闭自适应加载。开启后，会统计数据消费速率与数据加载耗时，流量突增时提高加载阈值与单次加载量，
+     * 保证缓冲区在加载完成前不会被读空；流量下降后，逐渐回落到 <code>bufferSize * loadFactor</code> 与 {@link #setLoadBatchSize(int)}。
+     * 单次加载量不超过触发加载时缓冲区的空闲容量，即 <code>bufferSize - 加载阈值</code>。
+     * 单次加载量只对支持指定加载数量的数据加载器生效，参考 {@link #getLoadBatchSize()}。
      */
-    protected abstract void publishData(Collection<T> data);
+    public void setAdaptive(boolean adaptive) {
+        this.loadTracker = adaptive ? new AdaptiveLoadTracker(getBaseLoadThreshold(), this.loadBatchSize) : null;
+    }
+
+
+    /**
+     * 是否开启了自适应加载
+     */
+    public boolean isAdaptive() {
+        return this.loadTracker != null;
+    }
+
+
+    /**
+     * 下一次加载的数据量。未开启自适应加载时，返回 {@link #setLoadBatchSize(int)} 设置的值。
+     */
+    public int getLoadBatchSize() {
+        AdaptiveLoadTracker tracker = this.loadTracker;
+        return tracker != null ? tracker.getLoadBatchSize() : this.loadBatchSize;
+    }
+
+
+    /**
+     * 开启或关闭指标统计。开启后，可以通过 {@link #getMetrics()} 获取读取量、读等待耗时、加载耗时分布等指标，重新开启时指标清零。
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsRecorder = metricsEnabled ? new SupplierMetricsRecorder() : null;
+    }
+
+
+    /**
+     * 是否开启了指标统计
+     */
+    public boolean isMetricsEnabled() {
+        return this.metricsRecorder != null;
+    }
+
+
+    /**
+     * 获取指标快照。未开启指标统计时，只有剩余数据量有值。
+     */
+    public SupplierMetrics getMetrics() {
+        SupplierMetricsRecorder recorder = this.metricsRecorder;
+        if (recorder == null) {
+            return new SupplierMetrics(0, 0, 0, 0, 0, 0, 0,
+                    new long[SupplierMetrics.LOAD_LATENCY_BUCKETS], getRemainingSize());
+        }
+        return recorder.snapshot(getRemainingSize());
+    }
+
+
+    /**
+     * 记录被消费的数据量，子类读取数据成功后调用，用于自适应加载统计消费速率、指标统计读取量
+     */
+    protected void recordConsumed(long count) {
+        AdaptiveLoadTracker tracker = this.loadTracker;
+        if (tracker != null) {
+            tracker.recordConsumed(count);
+        }
+
+        SupplierMetricsRecorder recorder = this.metricsRecorder;
+        if (recorder != null) {
+            recorder.recordGets(count);
+        }
+    }
+
+
+    /**
+     * 记录一次数据加载的耗时，子类加载数据完成后调用，用于自适应加载调整加载阈值与单次加载量、指标统计加载耗时分布
+     */
+    protected void recordLoadLatency(long latencyNanos) {
+        AdaptiveLoadTracker tracker = this.loadTracker;
+        if (tracker != null) {
+            tracker.recordLoad(latencyNanos, this.bufferSize, getBaseLoadThreshold(), this.loadBatchSize);
+        }
+
+        SupplierMetricsRecorder recorder = this.metricsRecorder;
+        if (recorder != null) {
+            recorder.recordLoadLatency(latencyNanos);
+        }
+    }
+
+
+    /**
+     * 记录一次失败的数据加载的耗时，子类加载数据失败后调用，只用于指标统计加载失败次数与加载耗时分布，不参与自适应加载的统计
+     */
+    protected void recordLoadFailure(long latencyNanos) {
+        SupplierMetricsRecorder recorder = this.metricsRecorder;
+        if (recorder != null) {
+            recorder.recordLoadFailure(latencyNanos);
+        }
+    }
+
+
+    /**
+     * 记录一次加载发布的数据量，子类发布数据时调用
+     */
+    protected void recordLoadedItems(long count) {
+        SupplierMetricsRecorder recorder = this.metricsRecorder;
+        if (recorder != null) {
+            recorder.recordLoadedItems(count);
+        }
+    }
+
+
+    /**
+     * 是否需要统计读操作的等待耗时，子类据此决定是否需要在等待前后计时
+     */
+    protected boolean isBlockedTimeRecorded() {
+        return this.metricsRecorder != null;
+    }
+
+
+    /**
+     * 记录读操作等待数据发布的耗时
+     */
+    protected void recordBlocked(long nanos) {
+        SupplierMetricsRecorder recorder = this.metricsRecorder;
+        if (recorder != null) {
+            recorder.recordBlocked(nanos);
+        }
+    }
+
+
+    /**
+     * 记录一次申请读取超时
+     */
+    protected void recordAcquireTimeout() {
+        SupplierMetricsRecorder recorder = this.metricsRecorder;
+        if (recorder != null) {
+            recorder.recordAcquireTimeout();
+        }
+    }
+
+
+    /**
+     * 加载数据到缓冲区
+     */
+    protected abstract void loadData();
 
 
     /**
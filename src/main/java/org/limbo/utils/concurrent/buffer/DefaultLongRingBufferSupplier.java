@@ -0,0 +1,48 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class DefaultLongRingBufferSupplier extends LongRingBufferSupplier {
+
+    /**
+     * 真正负责数据加载的生产者，参数为本次加载的数据量
+     */
+    private final IntFunction<long[]> arrayLoader;
+
+    /**
+     * @param bufferSize 缓冲区大小，必须是2的n次幂
+     * @param eagerLoad 是否在启动生产者后立即进行数据加载。如传入false，则在第一次调用{@link #getAsLong()}方法时才会触发数据加载。
+     * @param supplier 真正进行数据生产的生产者，将批量生产数据，并以数组形式返回。
+     */
+    public DefaultLongRingBufferSupplier(int bufferSize, boolean eagerLoad, Supplier<long[]> supplier) {
+        super(bufferSize, eagerLoad);
+        Objects.requireNonNull(supplier);
+        this.arrayLoader = size -> supplier.get();
+    }
+
+    /**
+     * @param bufferSize 缓冲区大小，必须是2的n次幂
+     * @param eagerLoad 是否在启动生产者后立即进行数据加载。如传入false，则在第一次调用{@link #getAsLong()}方法时才会触发数据加载。
+     * @param loader 真正进行数据生产的生产者，参数为本次加载的数据量，见{@link #getLoadBatchSize()}，开启自适应加载时会动态调整。
+     */
+    public DefaultLongRingBufferSupplier(int bufferSize, boolean eagerLoad, IntFunction<long[]> loader) {
+        super(bufferSize, eagerLoad);
+        this.arrayLoader = Objects.requireNonNull(loader);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doLoadData() {
+        publishData(this.arrayLoader.apply(getLoadBatchSize()));
+    }
+
+}
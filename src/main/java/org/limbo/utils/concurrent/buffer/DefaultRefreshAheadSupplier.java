@@ -0,0 +1,64 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class DefaultRefreshAheadSupplier<T> extends RefreshAheadSupplier<T> {
+
+    /**
+     * 真正负责加载值的生产者
+     */
+    private final Supplier<T> supplier;
+
+    /**
+     * 计算值的有效期
+     */
+    private final Function<T, Duration> timeToLive;
+
+    /**
+     * @param eagerLoad 是否在启动生产者后立即加载值。如传入false，则在第一次调用{@link #get()}方法时才会触发加载。
+     * @param supplier 真正加载值的生产者，如调用微信接口获取 access_token。
+     * @param timeToLive 计算值的有效期，如 <code>resp -> Duration.ofSeconds(resp.getExpiresIn())</code>。
+     */
+    public DefaultRefreshAheadSupplier(boolean eagerLoad, Supplier<T> supplier, Function<T, Duration> timeToLive) {
+        super(eagerLoad);
+        this.supplier = Objects.requireNonNull(supplier);
+        this.timeToLive = Objects.requireNonNull(timeToLive);
+    }
+
+
+    /**
+     * @param eagerLoad 是否在启动生产者后立即加载值。如传入false，则在第一次调用{@link #get()}方法时才会触发加载。
+     * @param supplier 真正加载值的生产者。
+     * @param timeToLive 固定的有效期。
+     */
+    public DefaultRefreshAheadSupplier(boolean eagerLoad, Supplier<T> supplier, Duration timeToLive) {
+        this(eagerLoad, supplier, value -> timeToLive);
+        Objects.requireNonNull(timeToLive);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected T loadValue() {
+        return this.supplier.get();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Duration getTimeToLive(T value) {
+        return this.timeToLive.apply(value);
+    }
+
+}
@@ -1,10 +1,12 @@
 package org.limbo.utils.concurrent.buffer;
 
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.ProducerType;
 import org.limbo.utils.concurrent.Ref;
 
 import java.util.Collection;
 import java.util.Objects;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 /**
@@ -14,9 +16,9 @@ import java.util.function.Supplier;
 public class DefaultRingBufferSupplier<C extends Collection<T>, T> extends RingBufferSupplier<T> {
 
     /**
-     * 真正负责数据加载的生产者
+     * 真正负责数据加载的生产者，参数为本次加载的数据量
      */
-    private final Supplier<C> collectionSupplier;
+    private final IntFunction<C> collectionLoader;
 
     /**
      * @param bufferSize 缓冲区大小，为保证性能，建议是2的n次幂
@@ -25,7 +27,18 @@ public class DefaultRingBufferSupplier<C extends Collection<T>, T> extends RingB
      */
     public DefaultRingBufferSupplier(int bufferSize, boolean eagerLoad, Supplier<C> supplier) {
         super(bufferSize, eagerLoad);
-        this.collectionSupplier = Objects.requireNonNull(supplier);
+        Objects.requireNonNull(supplier);
+        this.collectionLoader = size -> supplier.get();
+    }
+
+    /**
+     * @param bufferSize 缓冲区大小，为保证性能，建议是2的n次幂
+     * @param eagerLoad 是否在启动生产者后立即进行数据加载。如传入false，则在第一次调用{@link #get()}方法时才会触发数据加载。
+     * @param loader 真正进行数据生产的生产者，参数为本次加载的数据量，见{@link #getLoadBatchSize()}，开启自适应加载时会动态调整。
+     */
+    public DefaultRingBufferSupplier(int bufferSize, boolean eagerLoad, IntFunction<C> loader) {
+        super(bufferSize, eagerLoad);
+        this.collectionLoader = Objects.requireNonNull(loader);
     }
 
     /**
@@ -35,7 +48,28 @@ public class DefaultRingBufferSupplier<C extends Collection<T>, T> extends RingB
      */
     public DefaultRingBufferSupplier(RingBuffer<Ref<T>> buffer, boolean eagerLoad, Supplier<C> supplier) {
         super(buffer, eagerLoad);
-        this.collectionSupplier = Objects.requireNonNull(supplier);
+        Objects.requireNonNull(supplier);
+        this.collectionLoader = size -> supplier.get();
+    }
+
+    /**
+     * @param buffer 生产者使用的缓冲区
+     * @param eagerLoad 是否在启动生产者后立即进行数据加载。如传入false，则在第一次调用{@link #get()}方法时才会触发数据加载。
+     * @param loader 真正进行数据生产的生产者，参数为本次加载的数据量，见{@link #getLoadBatchSize()}，开启自适应加载时会动态调整。
+     */
+    public DefaultRingBufferSupplier(RingBuffer<Ref<T>> buffer, boolean eagerLoad, IntFunction<C> loader) {
+        this(buffer, eagerLoad, ProducerType.SINGLE, loader);
+    }
+
+    /**
+     * @param buffer 生产者使用的缓冲区
+     * @param eagerLoad 是否在启动生产者后立即进行数据加载。如传入false，则在第一次调用{@link #get()}方法时才会触发数据加载。
+     * @param producerType 创建缓冲区时使用的生产者类型，为 MULTI 时才能设置多个加载任务并行加载
+     * @param loader 真正进行数据生产的生产者，参数为本次加载的数据量，见{@link #getLoadBatchSize()}，开启自适应加载时会动态调整。
+     */
+    public DefaultRingBufferSupplier(RingBuffer<Ref<T>> buffer, boolean eagerLoad, ProducerType producerType, IntFunction<C> loader) {
+        super(buffer, eagerLoad, producerType);
+        this.collectionLoader = Objects.requireNonNull(loader);
     }
 
 
@@ -44,7 +78,7 @@ public class DefaultRingBufferSupplier<C extends Collection<T>, T> extends RingB
      */
     @Override
     protected void doLoadData() {
-        publishData(this.collectionSupplier.get());
+        publishData(this.collectionLoader.apply(getLoadBatchSize()));
     }
 
 }
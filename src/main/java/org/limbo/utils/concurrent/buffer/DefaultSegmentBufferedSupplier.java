@@ -0,0 +1,35 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class DefaultSegmentBufferedSupplier extends SegmentBufferedSupplier {
+
+    /**
+     * 真正负责号段加载的生产者
+     */
+    private final Supplier<Segment> segmentSupplier;
+
+    /**
+     * @param eagerLoad 是否在启动生产者后立即加载号段。如传入false，则在第一次调用{@link #getAsLong()}方法时才会触发号段加载。
+     * @param supplier 真正进行号段生产的生产者，如从DB中申请一个号段。
+     */
+    public DefaultSegmentBufferedSupplier(boolean eagerLoad, Supplier<Segment> supplier) {
+        super(eagerLoad);
+        this.segmentSupplier = Objects.requireNonNull(supplier);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Segment loadSegment() {
+        return this.segmentSupplier.get();
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 数据加载失败后的退避策略。连续失败时，重试间隔按指数增长，不超过最大间隔，并随机减少一部分，
+ * 避免多个生产者在同一时刻重试。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public final class LoadBackoff {
+
+    /**
+     * 不退避，加载失败后收到加载许可时立即重试
+     */
+    private static final LoadBackoff NONE = new LoadBackoff(0, 0, 0);
+
+    /**
+     * 第一次失败后的重试间隔，纳秒
+     */
+    private final long initialDelayNanos;
+
+    /**
+     * 最大重试间隔，纳秒
+     */
+    private final long maxDelayNanos;
+
+    /**
+     * 随机抖动比例，重试间隔会随机减少 [0, jitter) 比例
+     */
+    private final double jitter;
+
+
+    private LoadBackoff(long initialDelayNanos, long maxDelayNanos, double jitter) {
+        this.initialDelayNanos = initialDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.jitter = jitter;
+    }
+
+
+    /**
+     * 不退避
+     */
+    public static LoadBackoff none() {
+        return NONE;
+    }
+
+
+    /**
+     * 指数退避，随机抖动比例为0.5
+     *
+     * @param initialDelay 第一次失败后的重试间隔
+     * @param maxDelay 最大重试间隔
+     */
+    public static LoadBackoff exponential(Duration initialDelay, Duration maxDelay) {
+        return exponential(initialDelay, maxDelay, 0.5);
+    }
+
+
+    /**
+     * 指数退避
+     *
+     * @param initialDelay 第一次失败后的重试间隔
+     * @param maxDelay 最大重试间隔
+     * @param jitter 随机抖动比例，取值 [0, 1]
+     */
+    public static LoadBackoff exponential(Duration initialDelay, Duration maxDelay, double jitter) {
+        long initialDelayNanos = Objects.requireNonNull(initialDelay).toNanos();
+        long maxDelayNanos = Objects.requireNonNull(maxDelay).toNanos();
+        if (initialDelayNanos < 0 || maxDelayNanos < initialDelayNanos) {
+            throw new IllegalArgumentException("require 0 <= initialDelay <= maxDelay");
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("jitter must be in [0, 1]");
+        }
+        return new LoadBackoff(initialDelayNanos, maxDelayNanos, jitter);
+    }
+
+
+    /**
+     * 计算连续失败 failures 次后的重试间隔
+     *
+     * @param failures 连续失败次数
+     * @return 重试间隔，纳秒
+     */
+    public long delayNanos(int failures) {
+        if (failures <= 0 || this.initialDelayNanos <= 0) {
+            return 0;
+        }
+
+        double delay = Math.min(this.maxDelayNanos, this.initialDelayNanos * Math.pow(2, failures - 1));
+        if (this.jitter > 0) {
+            delay *= 1 - this.jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return (long) delay;
+    }
+
+}
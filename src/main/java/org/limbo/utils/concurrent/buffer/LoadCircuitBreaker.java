@@ -0,0 +1,161 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 数据加载熔断器。连续加载失败达到阈值后打开熔断，熔断期间不再加载数据，缓存中没有数据时读操作立即失败；
+ * 熔断时长结束后进入半开状态，只允许一次探测加载，探测成功则关闭熔断，失败则重新打开熔断。
+ * <br/>
+ * 熔断器有状态，一个熔断器实例只能用于一个生产者。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class LoadCircuitBreaker {
+
+    /**
+     * 打开熔断的连续失败次数
+     */
+    private final int failureThreshold;
+
+    /**
+     * 熔断时长，纳秒
+     */
+    private final long openNanos;
+
+    /**
+     * 熔断状态
+     */
+    private final AtomicReference<State> state;
+
+    /**
+     * 连续失败次数
+     */
+    private final AtomicInteger failures;
+
+    /**
+     * 最近一次打开熔断的时间
+     */
+    private volatile long openedAt;
+
+
+    /**
+     * @param failureThreshold 打开熔断的连续失败次数
+     * @param openDuration 熔断时长，结束后进入半开状态
+     */
+    public LoadCircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.openNanos = Objects.requireNonNull(openDuration).toNanos();
+        this.state = new AtomicReference<>(State.CLOSED);
+        this.failures = new AtomicInteger(0);
+    }
+
+
+    /**
+     * 当前熔断状态
+     */
+    public State getState() {
+        return this.state.get();
+    }
+
+
+    /**
+     * 熔断是否打开，打开或半开状态下都认为熔断打开
+     */
+    public boolean isOpen() {
+        return this.state.get() != State.CLOSED;
+    }
+
+
+    /**
+     * 申请加载数据。熔断关闭时允许加载；熔断时长结束后，只有一个申请者能进入半开状态进行探测加载。
+     *
+     * @return 是否允许加载
+     */
+    boolean tryAcquirePermission() {
+        State current = this.state.get();
+        switch (current) {
+            case CLOSED:
+                return true;
+
+            case OPEN:
+                return remainingOpenNanos() <= 0 && this.state.compareAndSet(State.OPEN, State.HALF_OPEN);
+
+            default:
+                // 半开状态下已有探测加载在进行
+                return false;
+        }
+    }
+
+
+    /**
+     * 熔断打开的剩余时长，纳秒
+     */
+    long remainingOpenNanos() {
+        return this.openNanos - (System.nanoTime() - this.openedAt);
+    }
+
+
+    /**
+     * 加载成功，关闭熔断
+     *
+     * @return 熔断是否由打开或半开状态变为关闭
+     */
+    boolean onSuccess() {
+        this.failures.set(0);
+        return this.state.getAndSet(State.CLOSED) != State.CLOSED;
+    }
+
+
+    /**
+     * 加载被跳过，没有探测结果。半开状态下恢复打开，熔断时长已经结束，下次申请时重新探测
+     */
+    void onSkipped() {
+        this.state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+
+    /**
+     * 加载失败，半开状态下探测失败，或连续失败达到阈值时，打开熔断
+     *
+     * @return 熔断是否由关闭状态变为打开
+     */
+    boolean onFailure() {
+        if (this.state.get() == State.HALF_OPEN || this.failures.incrementAndGet() >= this.failureThreshold) {
+            this.openedAt = System.nanoTime();
+            return this.state.getAndSet(State.OPEN) == State.CLOSED;
+        }
+        return false;
+    }
+
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+
+        /**
+         * 关闭，正常加载数据
+         */
+        CLOSED,
+
+        /**
+         * 打开，不加载数据
+         */
+        OPEN,
+
+        /**
+         * 半开，正在进行一次探测加载
+         */
+        HALF_OPEN
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步加载任务没有收到加载许可时的空闲策略。
+ * 加载许可下发时会直接唤醒加载线程，因此阻塞类的策略不会延迟数据加载。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public enum LoadIdleStrategy {
+
+    /**
+     * 阻塞加载线程，直到下发加载许可时被唤醒。空闲时不占用CPU。
+     */
+    BLOCKING {
+        @Override
+        void idle(int idleCount) {
+            LockSupport.park(this);
+        }
+    },
+
+    /**
+     * 让出CPU后立即重新检测许可，唤醒延迟低，但空闲时会持续占用CPU。
+     */
+    YIELDING {
+        @Override
+        void idle(int idleCount) {
+            Thread.yield();
+        }
+    },
+
+    /**
+     * 先自旋，再让出CPU，最后阻塞线程直到被唤醒。兼顾突发流量下的唤醒延迟与空闲时的CPU占用。
+     */
+    SPIN_THEN_PARK {
+        @Override
+        void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                // 自旋，什么都不做
+                return;
+            }
+
+            if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    };
+
+
+    /**
+     * 自旋次数
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * 自旋结束后，让出CPU的次数
+     */
+    private static final int YIELD_TRIES = 100;
+
+
+    /**
+     * 执行一次空闲等待。阻塞类的策略可能被提前唤醒，调用方需要重新检测加载许可。
+     * @param idleCount 连续空闲的次数，收到加载许可后会重置为0
+     */
+    abstract void idle(int idleCount);
+
+}
@@ -0,0 +1,380 @@
+package org.limbo.utils.concurrent.buffer;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * 缓存long类型数据的带缓存生产者，适用于ID分配等场景。
+ * 数据直接保存在 <code>long[]</code> 环形数组中，通过 {@link #getAsLong()} 读取时不会装箱，读取过程没有对象分配；
+ * 只有读操作等待数据发布时被alert或中断，放弃已申请的读索引时，之后发布到此读索引上的数据才会装箱留给其他读操作。
+ * 读取并发控制与 {@link RingBufferSupplier} 的无锁读模式一致。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Slf4j
+public abstract class LongRingBufferSupplier extends AsyncLoadBufferedSupplier<Long> implements LongSupplier {
+
+    /**
+     * 写索引控制器，只有异步加载线程会写入数据，因此使用单生产者模式
+     */
+    private final Sequencer sequencer;
+
+    /**
+     * 缓存数据
+     */
+    private final long[] values;
+
+    /**
+     * 读索引与已消费索引
+     */
+    private final RingSequences sequences;
+
+    /**
+     * 读操作阻塞器
+     */
+    private final SequenceBarrier readBarrier;
+
+    /**
+     * 被放弃的读索引。读操作等待数据发布时被alert或中断，读索引上的数据可能还未发布，不能直接标记为已消费，否则之后发布的数据会丢失；
+     * 数据发布后由加载线程取出到 {@link #spareValues}，再标记为已消费。
+     */
+    private final Queue<Long> abandonedSequences;
+
+    /**
+     * 从被放弃的读索引上取出的数据，读操作优先读取。只有放弃读索引时才会装箱
+     */
+    private final Queue<Long> spareValues;
+
+
+    /**
+     * @param bufferSize 缓冲区大小，必须是2的n次幂
+     * @param eagerLoad 是否在启动生产者后立即进行数据加载
+     */
+    public LongRingBufferSupplier(int bufferSize, boolean eagerLoad) {
+        super(bufferSize, eagerLoad);
+        this.sequencer = new SingleProducerSequencer(bufferSize, new BlockingWaitStrategy());
+        this.values = new long[bufferSize];
+        // 生产者以已消费索引作为门禁，读操作申请了读索引但还未读取时，数据不会被覆盖
+        this.sequences = RingSequences.of(this.sequencer);
+        this.readBarrier = sequencer.newBarrier();
+        this.abandonedSequences = new ConcurrentLinkedQueue<>();
+        this.spareValues = new ConcurrentLinkedQueue<>();
+    }
+
+
+    /**
+     * 从缓存的值中取出一个，不会装箱。
+     * 读取失败时，{@link #onGetError(Throwable)} 返回的结果作为读取结果，返回null时抛出异常。
+     */
+    @Override
+    public long getAsLong() {
+        // 检测是否还在运行
+        if (!isRunning()) {
+            return unboxErrorResult(new IllegalStateException("此生产者已经停止：" + getName()));
+        }
+
+        // 加载熔断且缓存中没有数据时，立即失败
+        if (shouldFailFast()) {
+            return unboxErrorResult(newFailFastException());
+        }
+
+        // 优先读取被放弃的读索引上取出的数据
+        Long spare = pollSpare();
+        if (spare != null) {
+            return spare;
+        }
+
+        long nextSequence;
+        try {
+            // 申请读取，5秒超时
+            nextSequence = this.sequences.claim(1, RingSequences.ACCESS_TIMEOUT);
+        } catch (InterruptedException e) {
+            log.error("请求读取异常", e);
+            return unboxErrorResult(e);
+        }
+
+        if (nextSequence == RingSequences.NO_SEQUENCE) {
+            recordAcquireTimeout();
+            return unboxErrorResult(new IllegalStateException("申请读取超时：" + getName()));
+        }
+
+        try {
+            // 检测是否需要加载数据
+            checkAndLoadData();
+
+            // 数据不足时，等待数据发布
+            long availableSequence = waitForPublished(nextSequence);
+            while (nextSequence > availableSequence) {
+                availableSequence = waitForPublished(nextSequence);
+            }
+        } catch (AlertException e) {
+            // 生产者停止或加载熔断时，阻塞器被alert，放弃已申请的读索引，之后发布到此读索引上的数据留给其他读操作
+            abandon(nextSequence);
+            return unboxErrorResult(isRunning() ? newFailFastException() : e);
+        } catch (Exception e) {
+            // 放弃已申请的读索引，否则已消费索引无法推进，生产者将无法继续写入
+            abandon(nextSequence);
+            log.error("读取buffer发生异常", e);
+            return unboxErrorResult(e);
+        }
+
+        long value = this.values[this.sequences.indexOf(nextSequence)];
+        this.sequences.markConsumed(nextSequence);
+        recordConsumed(1);
+        return value;
+    }
+
+
+    /**
+     * 从缓存的值中取出一个，会将读取结果装箱，需要避免装箱时使用 {@link #getAsLong()}。
+     */
+    @Override
+    public Long get() {
+        return getAsLong();
+    }
+
+
+    /**
+     * 读取异常时，将 {@link #onGetError(Throwable)} 的处理结果作为读取结果
+     */
+    private long unboxErrorResult(Throwable throwable) {
+        Long value = onGetError(throwable);
+        if (value == null) {
+            throw new IllegalStateException("读取数据异常", throwable);
+        }
+        return value;
+    }
+
+
+    /**
+     * 放弃已申请但未读取的读索引，数据发布后由加载线程取出
+     */
+    private void abandon(long sequence) {
+        this.abandonedSequences.offer(sequence);
+        // 放弃之前数据可能已经发布，加载线程发布数据时可能还没有看到此读索引，需要再检测一次
+        reclaimAbandoned();
+    }
+
+
+    /**
+     * 取出被放弃的读索引上已发布的数据，标记为已消费。未发布的读索引放回队列，等待下次发布数据后再检测。
+     */
+    private void reclaimAbandoned() {
+        if (this.abandonedSequences.isEmpty()) {
+            return;
+        }
+
+        for (int i = this.abandonedSequences.size(); i > 0; i--) {
+            Long sequence = this.abandonedSequences.poll();
+            if (sequence == null) {
+                return;
+            }
+            if (this.sequences.highestPublished(sequence) < sequence) {
+                this.abandonedSequences.offer(sequence);
+                continue;
+            }
+
+            spareSlot(sequence);
+            this.sequences.markConsumed(sequence);
+        }
+    }
+
+
+    /**
+     * 取出已发布但未被读取的读索引上的数据，留给之后的读操作，由调用方标记为已消费
+     */
+    private void spareSlot(long sequence) {
+        this.spareValues.offer(this.values[this.sequences.indexOf(sequence)]);
+    }
+
+
+    /**
+     * 取出一个被放弃的读索引上的数据
+     * @return 没有数据时返回null
+     */
+    private Long pollSpare() {
+        Long value = this.spareValues.poll();
+        if (value != null) {
+            recordConsumed(1);
+        }
+        return value;
+    }
+
+
+    /**
+     * 等待读索引上的数据发布，开启指标统计时记录等待耗时。
+     * 数据已发布时直接返回，不经过阻塞器，加载熔断时阻塞器被alert，已发布的数据仍然可以读取。
+     * @return 当前已发布的索引
+     */
+    private long waitForPublished(long sequence) throws AlertException, InterruptedException, TimeoutException {
+        long published = this.sequences.highestPublished(sequence);
+        if (published >= sequence) {
+            return published;
+        }
+
+        if (!isBlockedTimeRecorded()) {
+            return this.readBarrier.waitFor(sequence);
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            return this.readBarrier.waitFor(sequence);
+        } finally {
+            recordBlocked(System.nanoTime() - waitStart);
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * @return
+     */
+    @Override
+    protected long getRemainingSize() {
+        long remainingSize = this.sequences.remaining();
+        return this.spareValues.isEmpty() ? remainingSize : remainingSize + this.spareValues.size();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onShutdown() {
+        super.onShutdown();
+        this.readBarrier.alert();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 熔断期间不会再发布数据，alert阻塞器唤醒等待数据发布的读操作。
+     */
+    @Override
+    protected void onLoadCircuitOpened() {
+        this.readBarrier.alert();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 清除熔断时设置的alert，读操作可以重新等待数据发布。
+     */
+    @Override
+    protected void onLoadCircuitClosed() {
+        this.readBarrier.clearAlert();
+        // 清除alert时生产者可能恰好停止，或熔断再次打开，需要重新alert，否则读操作可能永远等待
+        if (!isRunning() || isLoadCircuitOpen()) {
+            this.readBarrier.alert();
+        }
+    }
+
+
+    /**
+     * 发布数组中 [from, to) 范围内的数据。数据量超过缓冲区剩余容量时，分批发布；缓冲区已满时，逐个等待读操作释放槽位。
+     *
+     * @param data 待发布的数据
+     * @param from 起始下标，包含
+     * @param to 结束下标，不包含
+     */
+    protected void publishData(long[] data, int from, int to) {
+        if (data == null) {
+            return;
+        }
+
+        recordLoadedItems(Math.max(0, to - from));
+        int offset = from;
+        while (offset < to) {
+            int batchSize = this.sequences.publishBatchSize(to - offset);
+            long hi = this.sequences.claimForPublish(batchSize, this::isRunning);
+            if (hi == RingSequences.NO_SEQUENCE) {
+                log.warn("生产者已停止，丢弃{}条未发布的数据：{}", to - offset, getName());
+                return;
+            }
+
+            long lo = hi - batchSize + 1;
+            try {
+                for (long sequence = lo; sequence <= hi; sequence++) {
+                    this.values[this.sequences.indexOf(sequence)] = data[offset++];
+                }
+            } finally {
+                this.sequencer.publish(lo, hi);
+                reclaimAbandoned();
+            }
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 取出被放弃的读索引上的数据，以及全部已发布但未被读操作申请的数据。
+     */
+    @Override
+    protected List<Long> drainRemaining() {
+        // 优先取出被放弃的读索引上的数据
+        reclaimAbandoned();
+        int bufferSize = this.values.length;
+        List<Long> values = new ArrayList<>((int) Math.min(getRemainingSize(), bufferSize));
+        Long spare;
+        while ((spare = pollSpare()) != null) {
+            values.add(spare);
+        }
+
+        // 只申请已经发布的读索引，保证一个读索引只会被一个线程拿到
+        while (this.sequences.drainPublished(bufferSize, sequence -> values.add(this.values[this.sequences.indexOf(sequence)]), this::spareSlot) > 0) {
+            // 读操作并发读取时，分多次取出
+        }
+        return values;
+    }
+
+
+    /**
+     * 发布数组中的全部数据
+     *
+     * @param data 待发布的数据
+     */
+    protected void publishData(long[] data) {
+        if (data != null) {
+            publishData(data, 0, data.length);
+        }
+    }
+
+
+    /**
+     * 发布集合中的数据，集合中的null元素将被忽略。
+     *
+     * @param data 待发布的数据
+     */
+    protected void publishData(Collection<Long> data) {
+        if (CollectionUtils.isEmpty(data)) {
+            return;
+        }
+
+        long[] unboxed = new long[data.size()];
+        int size = 0;
+        Iterator<Long> iterator = data.iterator();
+        while (iterator.hasNext() && size < unboxed.length) {
+            Long value = iterator.next();
+            if (value != null) {
+                unboxed[size++] = value;
+            }
+        }
+        publishData(unboxed, 0, size);
+    }
+
+}
@@ -0,0 +1,382 @@
+package org.limbo.utils.concurrent.buffer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 提前刷新的带缓存生产者，缓存一个有有效期的值，如微信的 access_token、jsapi_ticket。
+ * <br/>
+ * 值在有效期内时，读操作只读取一次volatile引用，不加锁；有效期过去 {@link #getRefreshFactor()} 比例后，
+ * 读操作触发异步刷新，刷新期间仍返回当前的值。并发触发的刷新会合并为一次加载，刷新完成前不会重复调用数据加载器。
+ * 没有值或值已过期时，读操作等待刷新完成。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Slf4j
+public abstract class RefreshAheadSupplier<T> extends AsyncLoadBufferedSupplier<T> {
+
+    /**
+     * 等待刷新完成的超时时间
+     */
+    private static final long ACCESS_TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * 提前刷新因子，值的有效期过去此比例后触发刷新，取值范围 (0, 1]
+     */
+    @Getter
+    private volatile float refreshFactor = 0.8f;
+
+    /**
+     * 当前缓存的值
+     */
+    private volatile ExpiringValue<T> current;
+
+    /**
+     * 是否正在刷新，保证同一时刻只有一次刷新
+     */
+    private final AtomicBoolean refreshing;
+
+    /**
+     * 等待刷新完成时使用的锁
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * 刷新完成的条件
+     */
+    private final Condition refreshed;
+
+    /**
+     * 刷新失败的次数，需要持有锁访问。等待刷新的读操作据此判断等待期间是否有刷新失败
+     */
+    private long refreshFailures;
+
+    /**
+     * 最近一次刷新失败的异常，需要持有锁访问
+     */
+    private Throwable refreshError;
+
+
+    /**
+     * @param eagerLoad 是否在启动生产者后立即加载值
+     */
+    public RefreshAheadSupplier(boolean eagerLoad) {
+        // 只缓存一个值
+        super(1, eagerLoad);
+        this.refreshing = new AtomicBoolean(false);
+        this.lock = new ReentrantLock();
+        this.refreshed = this.lock.newCondition();
+    }
+
+
+    /**
+     * 设置提前刷新因子，值的有效期过去此比例后触发刷新，如有效期7200秒、因子0.8时，加载1.6小时后刷新
+     *
+     * @param refreshFactor 取值范围 (0, 1]
+     */
+    public void setRefreshFactor(float refreshFactor) {
+        if (refreshFactor <= 0 || refreshFactor > 1) {
+            throw new IllegalArgumentException("refreshFactor must be in (0, 1]");
+        }
+        this.refreshFactor = refreshFactor;
+    }
+
+
+    /**
+     * 读取当前缓存的值。值在有效期内时直接返回，到达刷新时间时触发异步刷新；没有值或值已过期时，等待刷新完成。
+     * 读取失败时，{@link #onGetError(Throwable)} 返回的结果作为读取结果。
+     */
+    @Override
+    public T get() {
+        // 检测是否还在运行
+        if (!isRunning()) {
+            return onGetError(new IllegalStateException("此生产者已经停止：" + getName()));
+        }
+
+        // 快速路径，值在有效期内直接返回
+        ExpiringValue<T> value = this.current;
+        if (value != null && !value.isExpired(System.nanoTime())) {
+            recordConsumed(1);
+            checkAndLoadData();
+            return value.value;
+        }
+
+        // 加载熔断且没有可用的值时，立即失败
+        if (shouldFailFast()) {
+            return onGetError(newFailFastException());
+        }
+
+        try {
+            value = awaitRefreshed(System.nanoTime() + ACCESS_TIMEOUT);
+        } catch (InterruptedException e) {
+            log.error("等待刷新异常", e);
+            return onGetError(e);
+        } catch (RefreshFailedException e) {
+            return onGetError(new IllegalStateException("刷新失败：" + getName(), e.getCause()));
+        }
+
+        if (value == null) {
+            if (!isRunning()) {
+                return onGetError(new IllegalStateException("此生产者已经停止：" + getName()));
+            }
+            recordAcquireTimeout();
+            return onGetError(new IllegalStateException("等待刷新超时：" + getName()));
+        }
+
+        recordConsumed(1);
+        return value.value;
+    }
+
+
+    /**
+     * 触发刷新并等待刷新完成
+     *
+     * @param deadline 等待的截止时间
+     * @return 刷新后的值，超时或生产者停止时返回null
+     * @throws RefreshFailedException 等待期间刷新失败
+     */
+    private ExpiringValue<T> awaitRefreshed(long deadline) throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            long failures = this.refreshFailures;
+            while (isRunning()) {
+                ExpiringValue<T> value = this.current;
+                long now = System.nanoTime();
+                if (value != null && !value.isExpired(now)) {
+                    return value;
+                }
+
+                // 等待期间刷新失败，不再等待下一次刷新
+                if (this.refreshFailures != failures) {
+                    throw new RefreshFailedException(this.refreshError);
+                }
+
+                loadData();
+                long nanos = deadline - now;
+                if (nanos <= 0) {
+                    return null;
+                }
+                if (isBlockedTimeRecorded()) {
+                    recordBlocked(nanos - this.refreshed.awaitNanos(nanos));
+                } else {
+                    this.refreshed.awaitNanos(nanos);
+                }
+            }
+            return null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 使缓存的值失效并触发刷新，如微信接口返回凭证无效时调用。
+     * 只有当前缓存的仍是传入的值时才会失效，避免并发调用时使刚刷新的值失效。
+     *
+     * @param value 失效的值
+     */
+    public void invalidate(T value) {
+        this.lock.lock();
+        try {
+            ExpiringValue<T> current = this.current;
+            if (current != null && current.value == value) {
+                this.current = null;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (isRunning()) {
+            checkAndLoadData();
+        }
+    }
+
+
+    /**
+     * 没有值或已到达刷新时间时，需要刷新。刷新时间只与值的有效期有关，不受加载因子与自适应加载影响。
+     */
+    @Override
+    protected boolean needLoadData() {
+        ExpiringValue<T> value = this.current;
+        return value == null || System.nanoTime() - value.refreshAt >= 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 缓存的值在有效期内时为1，否则为0。
+     * @return
+     */
+    @Override
+    protected long getRemainingSize() {
+        ExpiringValue<T> value = this.current;
+        return value != null && !value.isExpired(System.nanoTime()) ? 1 : 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 缓存的值读取后不会被消费，优雅关闭时不需要等待读操作。
+     */
+    @Override
+    protected boolean isDrained() {
+        return true;
+    }
+
+
+    /**
+     * 加载一个新的值，返回null时视为加载失败
+     */
+    protected abstract T loadValue();
+
+
+    /**
+     * 计算值的有效期，如 access_token 的 expires_in
+     *
+     * @param value 加载的值
+     * @return 有效期，必须大于0
+     */
+    protected abstract Duration getTimeToLive(T value);
+
+
+    /**
+     * {@inheritDoc}
+     * 刷新请求在刷新期间或刷新完成后到达时会被跳过，保证并发触发的刷新只调用一次数据加载器。
+     */
+    @Override
+    protected boolean tryLoadData() {
+        if (!this.refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+
+        try {
+            // 加载许可可能在刷新过程中再次下发，此时已刷新，跳过
+            if (!needLoadData()) {
+                return false;
+            }
+
+            doLoadData();
+            return true;
+        } finally {
+            this.refreshing.set(false);
+        }
+    }
+
+
+    /**
+     * 加载并发布一个新的值
+     */
+    @Override
+    protected void doLoadData() {
+        T value = loadValue();
+        if (value == null) {
+            throw new IllegalStateException("加载的值为null：" + getName());
+        }
+        publishValue(value);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 唤醒等待刷新的读操作，读操作不再等待下一次刷新，立即失败。
+     */
+    @Override
+    protected void onLoadError(Throwable throwable) {
+        this.lock.lock();
+        try {
+            this.refreshFailures++;
+            this.refreshError = throwable;
+            this.refreshed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 发布一个新的值，替换当前缓存的值，并唤醒等待刷新的读操作
+     *
+     * @param value 新的值
+     */
+    protected void publishValue(T value) {
+        Duration ttl = getTimeToLive(value);
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("有效期必须大于0：" + ttl);
+        }
+
+        long now = System.nanoTime();
+        long ttlNanos = ttl.toNanos();
+        ExpiringValue<T> expiring = new ExpiringValue<>(value, now + (long) (ttlNanos * this.refreshFactor), now + ttlNanos);
+        recordLoadedItems(1);
+
+        this.lock.lock();
+        try {
+            this.current = expiring;
+            this.refreshed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 唤醒等待刷新的读操作。
+     */
+    @Override
+    protected void onShutdown() {
+        super.onShutdown();
+        this.lock.lock();
+        try {
+            this.refreshed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 等待期间刷新失败，cause为刷新失败的异常
+     */
+    private static class RefreshFailedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        RefreshFailedException(Throwable cause) {
+            super(cause);
+        }
+
+    }
+
+
+    /**
+     * 缓存的值及其刷新时间、过期时间，时间均为 {@link System#nanoTime()}
+     */
+    private static class ExpiringValue<T> {
+
+        private final T value;
+
+        private final long refreshAt;
+
+        private final long expiresAt;
+
+        ExpiringValue(T value, long refreshAt, long expiresAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - this.expiresAt >= 0;
+        }
+
+    }
+
+}
@@ -1,18 +1,43 @@
 package org.limbo.utils.concurrent.buffer;
 
+import com.lmax.disruptor.AlertException;
 import com.lmax.disruptor.RingBuffer;
-import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.dsl.ProducerType;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.limbo.utils.concurrent.Ref;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 基于 Disruptor 的 RingBuffer 实现的带缓存生产者。
+ * <br/>
+ * 读操作的阻塞等待都基于 j.u.c 的锁、条件与 {@link LockSupport}，没有在 synchronized 中阻塞，
+ * 读线程是虚拟线程时，等待数据期间会让出载体线程，此时缓冲区应使用阻塞的等待策略，避免自旋占用载体线程。
  *
  * @author Brozen
  * @since 2022-04-06
@@ -25,34 +50,104 @@ public abstract class RingBufferSupplier<T> extends AsyncLoadBufferedSupplier<T>
      */
     private final Semaphore accessorController;
 
+    /**
+     * 读模式，需要在启动生产者之前设置
+     */
+    @Setter
+    @Getter
+    private ReadMode readMode = ReadMode.SEMAPHORE;
+
     /**
      * 缓存队列
      */
     private final RingBuffer<Ref<T>> buffer;
 
     /**
-     * 读索引
+     * 缓冲区的生产者类型，为 MULTI 时才支持多个加载任务并发写入
+     */
+    private final ProducerType producerType;
+
+    /**
+     * 读索引与已消费索引
      */
-    private final Sequence sequence;
+    private final RingSequences sequences;
 
     /**
      * 读操作阻塞器
      */
     private final SequenceBarrier readBarrier;
 
+    /**
+     * 限时读操作等待数据发布时使用的锁，Disruptor的等待策略不支持超时，限时读操作通过此锁的条件等待
+     */
+    private final ReentrantLock publishLock;
+
+    /**
+     * 数据发布的条件
+     */
+    private final Condition published;
+
+    /**
+     * 正在等待数据发布的限时读操作数量，没有等待者时，发布数据后不需要加锁唤醒
+     */
+    private final AtomicInteger timedWaiters;
+
+    /**
+     * 等待数据发布的异步读操作，数据发布后由加载线程取出数据，交给 {@link #futureExecutor} 完成
+     */
+    private final Deque<CompletableFuture<T>> pendingFutures;
+
+    /**
+     * 完成异步读操作的执行器，Future的同步回调在此执行器中执行，不会占用加载线程；执行器拒绝时在当前线程完成
+     */
+    @Setter
+    @Getter
+    private Executor futureExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * 被放弃的读索引。限时读等待超时、读操作异常时，读索引上的数据可能还未发布，不能直接标记为已消费，否则之后发布的数据会丢失；
+     * 数据发布后由加载线程取出到 {@link #spareValues}，再标记为已消费。SEMAPHORE 读模式下，读取许可在取出数据时释放。
+     */
+    private final Queue<Long> abandonedSequences;
+
+    /**
+     * 从被放弃的读索引上取出的数据，以及异步读操作被取消后没有其他等待者领取的数据，读操作优先读取
+     */
+    private final Queue<T> spareValues;
+
 
     public RingBufferSupplier(int bufferSize, boolean eagerLoad) {
         this(RingBuffer.createSingleProducer(Ref::new, bufferSize), eagerLoad);
     }
 
 
+    /**
+     * 使用单生产者的缓冲区，只能有一个加载任务写入
+     */
     public RingBufferSupplier(RingBuffer<Ref<T>> buffer, boolean eagerLoad) {
+        this(buffer, eagerLoad, ProducerType.SINGLE);
+    }
+
+
+    /**
+     * @param buffer 生产者使用的缓冲区
+     * @param eagerLoad 是否在启动生产者后立即进行数据加载
+     * @param producerType 创建缓冲区时使用的生产者类型，RingBuffer 不提供获取生产者类型的方法，需要调用方传入。为 MULTI 时才能并行加载
+     */
+    public RingBufferSupplier(RingBuffer<Ref<T>> buffer, boolean eagerLoad, ProducerType producerType) {
         super(buffer.getBufferSize(), eagerLoad);
+        this.producerType = Objects.requireNonNull(producerType);
         this.accessorController = new Semaphore(buffer.getBufferSize() - 1);
         this.buffer = buffer;
-        this.sequence = new Sequence();
-        this.buffer.addGatingSequences(sequence);
-        this.readBarrier = buffer.newBarrier(sequence);
+        // 生产者以已消费索引作为门禁，不能以读索引作为门禁，否则读操作申请了读索引但还未读取时，数据可能被生产者覆盖
+        this.sequences = RingSequences.of(buffer);
+        this.readBarrier = buffer.newBarrier();
+        this.publishLock = new ReentrantLock();
+        this.published = this.publishLock.newCondition();
+        this.timedWaiters = new AtomicInteger(0);
+        this.pendingFutures = new ConcurrentLinkedDeque<>();
+        this.abandonedSequences = new ConcurrentLinkedQueue<>();
+        this.spareValues = new ConcurrentLinkedQueue<>();
     }
 
 
@@ -66,87 +161,693 @@ public abstract class RingBufferSupplier<T> extends AsyncLoadBufferedSupplier<T>
             return onGetError(new IllegalStateException("此生产者已经停止：" + getName()));
         }
 
-        T value = null;
-        boolean accessAllowed = false;
+        // 加载熔断且缓存中没有数据时，立即失败
+        if (shouldFailFast()) {
+            return onGetError(newFailFastException());
+        }
+
+        // 优先读取被放弃的读索引上取出的数据
+        T spare = pollSpare();
+        if (spare != null) {
+            return spare;
+        }
+
+        ReadMode readMode = this.readMode;
+        long nextSequence;
         try {
             // 申请读取，5秒超时
-            accessAllowed = this.accessorController.tryAcquire(5, TimeUnit.SECONDS);
-            if (accessAllowed) {
+            nextSequence = claimSequences(readMode, 1, RingSequences.ACCESS_TIMEOUT);
+        } catch (InterruptedException e) {
+            log.error("请求读取异常", e);
+            return onGetError(e);
+        }
+
+        if (nextSequence == RingSequences.NO_SEQUENCE) {
+            recordAcquireTimeout();
+            return null;
+        }
 
-                // 检测是否需要加载数据
-                checkAndLoadData();
-                // 读取数据
-                return doGet();
+        // 读取数据
+        return doGet(readMode, nextSequence);
+    }
+
+
+    /**
+     * 尝试从缓存的值中取出一个，只读取已经发布的数据，缓存中没有数据时立即返回，不会等待数据加载。
+     *
+     * @return 取出的值，缓存中没有数据或生产者已停止时返回 {@link Optional#empty()}
+     */
+    public Optional<T> tryGet() {
+        if (!isRunning()) {
+            return Optional.empty();
+        }
+
+        T spare = pollSpare();
+        if (spare != null) {
+            return Optional.of(spare);
+        }
+
+        // 只申请已经发布的读索引
+        long nextSequence = this.sequences.claimPublished();
+        if (nextSequence == RingSequences.NO_SEQUENCE) {
+            // 被放弃的读索引上的数据可能已经发布，但加载线程还未取出
+            reclaimAbandoned();
+            checkAndLoadData();
+            return Optional.ofNullable(pollSpare());
+        }
+
+        T value = readSlot(nextSequence);
+
+        // 检测是否需要加载数据
+        checkAndLoadData();
+        return Optional.ofNullable(value);
+    }
+
+
+    /**
+     * 从缓存的值中取出一个，申请读取与等待数据发布的总耗时不超过 timeout。
+     * 申请到读索引后等待超时，此读索引将被放弃，之后发布到此读索引上的数据由加载线程取出，留给其他读操作，因此读取顺序可能与发布顺序不一致。
+     *
+     * @param timeout 超时时间
+     * @param unit 超时时间单位
+     * @throws TimeoutException 超时未读取到数据
+     * @throws InterruptedException 等待时线程被中断
+     */
+    public T get(long timeout, TimeUnit unit) throws TimeoutException, InterruptedException {
+        // 检测是否还在运行
+        if (!isRunning()) {
+            return onGetError(new IllegalStateException("此生产者已经停止：" + getName()));
+        }
+
+        // 加载熔断且缓存中没有数据时，立即失败
+        if (shouldFailFast()) {
+            return onGetError(newFailFastException());
+        }
+
+        T spare = pollSpare();
+        if (spare != null) {
+            return spare;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        ReadMode readMode = this.readMode;
+        long nextSequence = claimSequences(readMode, 1, unit.toNanos(timeout));
+        if (nextSequence == RingSequences.NO_SEQUENCE) {
+            recordAcquireTimeout();
+            throw new TimeoutException("申请读取超时：" + getName());
+        }
+
+        boolean read = false;
+        try {
+            // 检测是否需要加载数据
+            checkAndLoadData();
+
+            // 等待数据发布
+            if (!awaitPublished(nextSequence, deadline)) {
+                if (!isRunning()) {
+                    return onGetError(new IllegalStateException("此生产者已经停止：" + getName()));
+                }
+                if (isLoadCircuitOpen()) {
+                    return onGetError(newFailFastException());
+                }
+                throw new TimeoutException("等待数据发布超时：" + getName());
             }
+            T value = readSlot(nextSequence);
+            read = true;
+            return value;
+        } finally {
+            // 超时、中断、加载异常等没有读取数据的情况，都需要放弃读索引，否则已消费索引无法推进
+            finishRead(readMode, nextSequence, read);
+        }
+    }
 
-        } catch (InterruptedException e) {
-            log.error("请求读取异常", e);
-            value = onGetError(e);
+
+    /**
+     * 等待读索引上的数据发布，直到超过截止时间、生产者停止或加载熔断打开
+     *
+     * @param sequence 读索引
+     * @param deadline 截止时间
+     * @return 数据是否已发布
+     */
+    private boolean awaitPublished(long sequence, long deadline) throws InterruptedException {
+        if (this.sequences.highestPublished(sequence) >= sequence) {
+            return true;
+        }
+
+        boolean timed = isBlockedTimeRecorded();
+        long waitStart = timed ? System.nanoTime() : 0L;
+        // 先登记等待者再检测是否已发布，与发布数据后先更新游标再检测等待者的顺序相反，保证不会遗漏唤醒
+        this.timedWaiters.incrementAndGet();
+        try {
+            this.publishLock.lockInterruptibly();
+            try {
+                while (this.sequences.highestPublished(sequence) < sequence) {
+                    long nanos = deadline - System.nanoTime();
+                    if (nanos <= 0 || !isRunning() || isLoadCircuitOpen()) {
+                        return false;
+                    }
+                    this.published.awaitNanos(nanos);
+                }
+                return true;
+            } finally {
+                this.publishLock.unlock();
+            }
+        } finally {
+            this.timedWaiters.decrementAndGet();
+            if (timed) {
+                recordBlocked(System.nanoTime() - waitStart);
+            }
+        }
+    }
+
+
+    /**
+     * 数据发布后，唤醒等待数据发布的限时读操作
+     */
+    private void signalPublished() {
+        if (this.timedWaiters.get() <= 0) {
+            return;
+        }
+        signalWaiters();
+    }
+
+
+    /**
+     * 唤醒全部等待中的限时读操作，由读操作重新检测数据是否发布、生产者是否停止、加载是否熔断
+     */
+    private void signalWaiters() {
+        this.publishLock.lock();
+        try {
+            this.published.signalAll();
         } finally {
-            if (accessAllowed) {
-                this.accessorController.release();
+            this.publishLock.unlock();
+        }
+    }
+
+
+    /**
+     * 异步获取一个元素，不会阻塞任何线程。缓存中有数据时，返回已完成的Future；
+     * 否则触发数据加载，并在数据发布后通过 {@link #setFutureExecutor(Executor)} 设置的执行器完成Future，Future的同步回调在此执行器中执行。
+     * 生产者停止时，未完成的Future将以 {@link IllegalStateException} 异常完成。
+     *
+     * @return 获取元素的Future
+     */
+    @Override
+    public CompletableFuture<T> getAsync() {
+        if (!isRunning()) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("此生产者已经停止：" + getName()));
+            return future;
+        }
+
+        // 加载熔断且缓存中没有数据时，立即失败
+        if (shouldFailFast()) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(newFailFastException());
+            return future;
+        }
+
+        // 缓存中有数据，直接完成
+        Optional<T> value = tryGet();
+        if (value.isPresent()) {
+            return CompletableFuture.completedFuture(value.get());
+        }
+
+        // 等待数据发布；加入等待队列前数据可能已经发布，加入后需要再尝试一次，防止错过加载线程的完成动作
+        CompletableFuture<T> future = new CompletableFuture<>();
+        this.pendingFutures.offer(future);
+        completePendingFutures();
+        if (!isRunning()) {
+            failPendingFutures(new IllegalStateException("此生产者已经停止：" + getName()));
+        } else if (shouldFailFast()) {
+            failPendingFutures(newFailFastException());
+        }
+        return future;
+    }
+
+
+    /**
+     * 使用已发布的数据，按等待顺序完成异步读操作，直到没有等待的异步读操作或没有已发布的数据。
+     * 加载线程与调用 {@link #getAsync()} 的线程可能并发执行此方法，先从队列中取出Future再读取数据，保证一个Future只会被一个线程完成。
+     */
+    private void completePendingFutures() {
+        CompletableFuture<T> future;
+        while ((future = this.pendingFutures.poll()) != null) {
+            // 已被调用方取消的Future，直接丢弃，不消费数据
+            if (future.isDone()) {
+                continue;
+            }
+
+            Optional<T> value = tryGet();
+            if (!value.isPresent()) {
+                // 没有数据，放回队头继续等待。放回之前加载线程可能已发布数据并看到空队列，因此放回后需要再检测一次；
+                // 只在有可以读取的数据时重试，多生产者时游标之前的数据可能还未发布，此时重试只会自旋
+                this.pendingFutures.offerFirst(future);
+                if (this.spareValues.isEmpty() && !this.sequences.hasPublished()) {
+                    return;
+                }
+                continue;
+            }
+
+            completeAsync(future, value.get());
+        }
+    }
+
+
+    /**
+     * 通过 {@link #futureExecutor} 完成Future，执行器拒绝时在当前线程完成
+     */
+    private void completeAsync(CompletableFuture<T> future, T value) {
+        try {
+            this.futureExecutor.execute(() -> complete(future, value));
+        } catch (RejectedExecutionException e) {
+            complete(future, value);
+        }
+    }
+
+
+    /**
+     * 完成Future。读取数据后，Future可能恰好被调用方取消，此时将数据交给下一个等待者；
+     * 没有等待者时，数据留给之后的读操作，不会丢弃
+     */
+    private void complete(CompletableFuture<T> future, T value) {
+        CompletableFuture<T> next = future;
+        while (next != null) {
+            if (next.complete(value)) {
+                return;
+            }
+            next = this.pendingFutures.poll();
+        }
+
+        this.spareValues.offer(value);
+        // 放回数据之前，可能有新的异步读操作加入队列
+        if (!this.pendingFutures.isEmpty()) {
+            completePendingFutures();
+        }
+    }
+
+
+    /**
+     * 生产者停止或加载熔断后，以异常完成所有等待中的异步读操作
+     */
+    private void failPendingFutures(Throwable e) {
+        CompletableFuture<T> future;
+        while ((future = this.pendingFutures.poll()) != null) {
+            future.completeExceptionally(e);
+        }
+    }
+
+
+    /**
+     * 批量取出缓存的值。一次CAS申请连续的多个读索引，然后批量读取，避免逐个读取的开销。
+     * 如果请求的数量超过了并发读的上限 <code>bufferSize - 1</code>，会分多批读取。
+     *
+     * @param n 需要获取的元素数量
+     * @return 获取到的元素，读取失败时，元素数量可能少于请求的数量
+     */
+    @Override
+    public List<T> get(int n) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<T> values = new ArrayList<>(n);
+        // 检测是否还在运行
+        if (!isRunning()) {
+            addIfNotNull(values, onGetError(new IllegalStateException("此生产者已经停止：" + getName())));
+            return values;
+        }
+
+        // 加载熔断且缓存中没有数据时，立即失败
+        if (shouldFailFast()) {
+            addIfNotNull(values, onGetError(newFailFastException()));
+            return values;
+        }
+
+        // 优先读取被放弃的读索引上取出的数据
+        drainSpare(values, n);
+
+        ReadMode readMode = this.readMode;
+        int maxBatchSize = this.buffer.getBufferSize() - 1;
+        while (values.size() < n) {
+            int batchSize = Math.min(n - values.size(), maxBatchSize);
+            long lastSequence;
+            try {
+                // 申请读取，5秒超时
+                lastSequence = claimSequences(readMode, batchSize, RingSequences.ACCESS_TIMEOUT);
+            } catch (InterruptedException e) {
+                log.error("请求读取异常", e);
+                addIfNotNull(values, onGetError(e));
+                break;
+            }
+
+            if (lastSequence == RingSequences.NO_SEQUENCE) {
+                recordAcquireTimeout();
+                break;
+            }
+
+            // 读取数据
+            if (!doGet(readMode, lastSequence, batchSize, values)) {
+                break;
+            }
+        }
+
+        return values;
+    }
+
+
+    /**
+     * 申请读取，并申请 count 个连续的读索引。并发读时，已申请但未读取完成的读索引不超过 <code>bufferSize - 1</code>，
+     * 需要留一个槽位给生产者写入数据。
+     *
+     * @param readMode 读模式
+     * @param count 申请的读索引数量
+     * @param timeoutNanos 申请读取的超时时间
+     * @return 申请到的最后一个读索引，超时未申请到时返回 {@link RingSequences#NO_SEQUENCE}
+     */
+    private long claimSequences(ReadMode readMode, int count, long timeoutNanos) throws InterruptedException {
+        if (readMode == ReadMode.SEMAPHORE) {
+            // 信号量限制并发读的数量，申请到信号量后，直接CAS更新全局读索引
+            if (!this.accessorController.tryAcquire(count, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return RingSequences.NO_SEQUENCE;
             }
+            return this.sequences.claim(count);
+        }
+
+        // 无锁读，根据读索引与已消费索引的差值，计算已申请但未读取完成的读索引数量，不超过上限时才CAS更新全局读索引
+        return this.sequences.claim(count, timeoutNanos);
+    }
+
+
+    /**
+     * 读取完成后释放读取许可
+     */
+    private void releaseAccess(ReadMode readMode, int count) {
+        if (readMode == ReadMode.SEMAPHORE && count > 0) {
+            this.accessorController.release(count);
         }
+    }
+
+
+    /**
+     * 结束一次读操作：已读取时释放读取许可；未读取时放弃读索引，读取许可在取出放弃的读索引上的数据后释放
+     */
+    private void finishRead(ReadMode readMode, long sequence, boolean read) {
+        if (read) {
+            releaseAccess(readMode, 1);
+        } else {
+            abandon(sequence);
+        }
+    }
+
+
+    /**
+     * 放弃已申请但未读取的读索引，数据发布后由加载线程取出
+     */
+    private void abandon(long sequence) {
+        this.abandonedSequences.offer(sequence);
+        // 放弃之前数据可能已经发布，加载线程发布数据时可能还没有看到此读索引，需要再检测一次
+        reclaimAbandoned();
+    }
+
+
+    /**
+     * 取出被放弃的读索引上已发布的数据，标记为已消费，并释放读取许可。未发布的读索引放回队列，等待下次发布数据后再检测。
+     */
+    private void reclaimAbandoned() {
+        if (this.abandonedSequences.isEmpty()) {
+            return;
+        }
+
+        for (int i = this.abandonedSequences.size(); i > 0; i--) {
+            Long sequence = this.abandonedSequences.poll();
+            if (sequence == null) {
+                return;
+            }
+            if (this.sequences.highestPublished(sequence) < sequence) {
+                this.abandonedSequences.offer(sequence);
+                continue;
+            }
 
+            spareSlot(sequence);
+            this.sequences.markConsumed(sequence);
+            releaseAccess(this.readMode, 1);
+        }
+    }
+
+
+    /**
+     * 取出已发布但未被读取的读索引上的数据，留给之后的读操作，由调用方标记为已消费
+     */
+    private void spareSlot(long sequence) {
+        T value = takeSlot(sequence);
+        if (value != null) {
+            this.spareValues.offer(value);
+        }
+    }
+
+
+    /**
+     * 取出一个被放弃的读索引上的数据
+     * @return 没有数据时返回null
+     */
+    private T pollSpare() {
+        T value = this.spareValues.poll();
+        if (value != null) {
+            recordConsumed(1);
+        }
         return value;
     }
 
 
     /**
-     * 执行数据获取操作
+     * 取出被放弃的读索引上的数据，直到集合中的元素数量达到 maxSize
      */
-    private T doGet() {
+    private void drainSpare(Collection<? super T> collection, int maxSize) {
         T value;
+        while (collection.size() < maxSize && (value = pollSpare()) != null) {
+            collection.add(value);
+        }
+    }
+
+
+    /**
+     * 取出缓存中已经发布的值，最多取出 maxElements 个，不会等待数据加载。
+     * 添加到集合时抛出异常，未添加的值不会丢弃，留给之后的读操作。
+     *
+     * @param collection 取出的值将被添加到此集合中
+     * @param maxElements 最多取出的元素数量
+     * @return 取出的元素数量
+     */
+    public int drainTo(Collection<? super T> collection, int maxElements) {
+        Objects.requireNonNull(collection, "collection");
+        if (maxElements <= 0 || !isRunning()) {
+            return 0;
+        }
+
+        int drained = drainPublished(collection, maxElements);
+
+        // 检测是否需要加载数据
+        checkAndLoadData();
+        return drained;
+    }
+
+
+    /**
+     * 取出被放弃的读索引上的数据与已经发布的数据，最多取出 maxElements 个，不检测生产者状态
+     */
+    private int drainPublished(Collection<? super T> collection, int maxElements) {
+        // 优先取出被放弃的读索引上的数据
+        reclaimAbandoned();
+        int drained = 0;
+        T spare;
+        while (drained < maxElements && (spare = pollSpare()) != null) {
+            collection.add(spare);
+            drained++;
+        }
+
+        // 只申请已经发布的读索引，添加到集合失败时，未添加的数据留给之后的读操作
+        if (drained < maxElements) {
+            int published = this.sequences.drainPublished(maxElements - drained, sequence -> {
+                Ref<T> ref = this.buffer.get(sequence);
+                collection.add(ref.get());
+                ref.lazySet(null);
+            }, this::spareSlot);
+            recordConsumed(published);
+            drained += published;
+        }
+        return drained;
+    }
+
+
+    /**
+     * 执行数据获取操作
+     * @param readMode 读模式
+     * @param nextSequence 申请到的读索引
+     */
+    private T doGet(ReadMode readMode, long nextSequence) {
+        boolean read = false;
         try {
-            long nextSequence = this.sequence.get();
-            long availableSequence = Long.MIN_VALUE;
-            boolean nextSequenceGot = false;
-
-            while (true) {
-                // 如果没有获取过下一个读索引，需要计算出下一个读索引的位置；读取后，CAS更新全局读索引，
-                // 保证并发读情况下，一个读索引只会被一个线程（当前线程）拿到
-                if (!nextSequenceGot) {
-                    do {
-                        nextSequence = this.sequence.get() + 1L;
-                    } while (!this.sequence.compareAndSet(nextSequence - 1L, nextSequence));
-                    nextSequenceGot = true;
-                }
+            // 检测是否需要加载数据
+            checkAndLoadData();
 
-                // 如果有数据可读，则读取；否则重新获取可读索引；
-                if (nextSequence <= availableSequence) {
-                    Ref<T> ref = buffer.get(nextSequence);
-                    // 读数据，并清空value，因为Disruptor不会自动清理，需要手动处理
-                    value = ref.get();
-                    ref.set(null);
-                    return value;
-                } else {
-                    // 走到这里，说明第一次进入循环；或多线程并发读时，缓存中数据不足，不够读取；
-                    // 此时需要获取当前buffer的可读索引，然后重新判断是否有数据可读（可读索引 >= 下一个读索引）：
-                    //     1. 可读则读取数据并返回（即上面的if块）；
-                    //     2. 否则重新获取可读索引（此处的else块），并重新判断（再次进入while循环）
-                    availableSequence = readBarrier.waitFor(nextSequence);
-                }
+            // 获取当前buffer的可读索引，然后判断是否有数据可读（可读索引 >= 下一个读索引）：
+            //     1. 可读则读取数据并返回；
+            //     2. 否则多线程并发读时，缓存中数据不足，不够读取，需要重新获取可读索引，并重新判断
+            long availableSequence = waitForPublished(nextSequence);
+            while (nextSequence > availableSequence) {
+                availableSequence = waitForPublished(nextSequence);
             }
+            T value = readSlot(nextSequence);
+            read = true;
+            return value;
+        } catch (AlertException e) {
+            // 生产者停止或加载熔断时，阻塞器被alert
+            return onGetError(isRunning() ? newFailFastException() : e);
+        } catch (Exception e) {
+            log.error("读取buffer发生异常", e);
+            return onGetError(e);
+        } finally {
+            // 放弃未读取的读索引，否则已消费索引无法推进，生产者将无法继续写入
+            finishRead(readMode, nextSequence, read);
+        }
+    }
 
+
+    /**
+     * 批量获取数据，等待数据发布后依次读取已申请的 count 个连续的读索引
+     * @param readMode 读模式
+     * @param lastSequence 申请到的最后一个读索引
+     * @param count 读取的数量
+     * @param values 读取到的数据将添加到此集合
+     * @return 是否读取成功
+     */
+    private boolean doGet(ReadMode readMode, long lastSequence, int count, List<T> values) {
+        long firstSequence = lastSequence - count + 1;
+        long nextSequence = firstSequence;
+        try {
+            long availableSequence = Long.MIN_VALUE;
+            while (nextSequence <= lastSequence) {
+                // 数据不足时，等待数据发布，waitFor 返回当前已发布的索引，可能一次等到多个数据；
+                // 一次读取的数据可能超过单次加载的数量，因此等待前需要再次检测是否需要加载数据
+                while (nextSequence > availableSequence) {
+                    checkAndLoadData();
+                    availableSequence = waitForPublished(nextSequence);
+                }
+                values.add(readSlot(nextSequence++));
+            }
+            return true;
+        } catch (AlertException e) {
+            // 生产者停止或加载熔断时，阻塞器被alert
+            addIfNotNull(values, onGetError(isRunning() ? newFailFastException() : e));
+            return false;
         } catch (Exception e) {
             log.error("读取buffer发生异常", e);
-            value = onGetError(e);
+            addIfNotNull(values, onGetError(e));
+            return false;
+        } finally {
+            // 放弃未读取的读索引，否则已消费索引无法推进，生产者将无法继续写入
+            releaseAccess(readMode, (int) (nextSequence - firstSequence));
+            for (long sequence = nextSequence; sequence <= lastSequence; sequence++) {
+                abandon(sequence);
+            }
+        }
+    }
+
+
+    /**
+     * 等待读索引上的数据发布，开启指标统计时记录等待耗时。
+     * 数据已发布时直接返回，不经过阻塞器，加载熔断时阻塞器被alert，已发布的数据仍然可以读取。
+     * @return 当前已发布的索引
+     */
+    private long waitForPublished(long sequence) throws AlertException, InterruptedException, com.lmax.disruptor.TimeoutException {
+        long published = this.sequences.highestPublished(sequence);
+        if (published >= sequence) {
+            return published;
+        }
+
+        if (!isBlockedTimeRecorded()) {
+            return this.readBarrier.waitFor(sequence);
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            return this.readBarrier.waitFor(sequence);
+        } finally {
+            recordBlocked(System.nanoTime() - waitStart);
         }
+    }
+
 
+    /**
+     * 读取指定读索引上的数据，读取完成后释放此槽位，生产者才能向此槽位写入新数据。
+     */
+    private T readSlot(long sequence) {
+        T value = takeSlot(sequence);
+        this.sequences.markConsumed(sequence);
+        recordConsumed(1);
         return value;
     }
 
 
+    /**
+     * 读取指定读索引上的数据，并清空value，因为Disruptor不会自动清理，需要手动处理。
+     */
+    private T takeSlot(long sequence) {
+        Ref<T> ref = this.buffer.get(sequence);
+        T value = ref.get();
+        // 槽位被生产者复用前，会先经过 markConsumed 的 volatile 写，无需立即可见
+        ref.lazySet(null);
+        return value;
+    }
+
+
+    /**
+     * 读取异常的处理结果不为null时，作为读取结果
+     */
+    private void addIfNotNull(List<T> values, T value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+
+
+    /**
+     * 读模式
+     */
+    public enum ReadMode {
+
+        /**
+         * 通过信号量限制并发读的数量，并发读较多时，信号量会成为竞争热点
+         */
+        SEMAPHORE,
+
+        /**
+         * 无锁读，通过读索引与已消费索引的差值限制并发读的数量，只有一次CAS
+         */
+        LOCK_FREE
+
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 多生产者的缓冲区支持并发写入。
+     */
+    @Override
+    protected boolean supportsConcurrentPublish() {
+        return this.producerType == ProducerType.MULTI;
+    }
+
+
     /**
      * {@inheritDoc}
      * @return
      */
     @Override
     protected long getRemainingSize() {
-        long remainingCapacity = this.buffer.remainingCapacity();
-        int bufferSize = this.buffer.getBufferSize();
-        long remainingSize = bufferSize - remainingCapacity;
-        return remainingSize < 0 ? 0 : remainingSize;
+        long remainingSize = this.sequences.remaining();
+        return this.spareValues.isEmpty() ? remainingSize : remainingSize + this.spareValues.size();
     }
 
     /**
@@ -156,28 +857,92 @@ public abstract class RingBufferSupplier<T> extends AsyncLoadBufferedSupplier<T>
     public void onShutdown() {
         super.onShutdown();
         this.readBarrier.alert();
+        failPendingFutures(new IllegalStateException("此生产者已经停止：" + getName()));
+
+        // 唤醒等待中的限时读操作
+        signalWaiters();
     }
 
 
     /**
      * {@inheritDoc}
-     * @param data 待发布的数据
+     * 熔断期间不会再发布数据，alert阻塞器唤醒等待数据发布的读操作，缓存中没有数据时，等待中的异步读操作立即失败。
+     */
+    @Override
+    protected void onLoadCircuitOpened() {
+        this.readBarrier.alert();
+        signalWaiters();
+        if (shouldFailFast()) {
+            failPendingFutures(newFailFastException());
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 清除熔断时设置的alert，读操作可以重新等待数据发布。
      */
     @Override
+    protected void onLoadCircuitClosed() {
+        this.readBarrier.clearAlert();
+        // 清除alert时生产者可能恰好停止，或熔断再次打开，需要重新alert，否则读操作可能永远等待
+        if (!isRunning() || isLoadCircuitOpen()) {
+            this.readBarrier.alert();
+        }
+    }
+
+
+    /**
+     * 发布数据到缓存。批量申请写索引，写入数据后一次性发布，读操作只需要被唤醒一次。
+     * 数据量超过缓冲区剩余容量时，分批发布，每批不超过申请时的剩余容量；缓冲区已满时，逐个等待读操作释放槽位。
+     *
+     * @param data 待发布的数据
+     */
     protected void publishData(Collection<T> data) {
         if (CollectionUtils.isEmpty(data)) {
             return;
         }
 
-        for (T datum : data) {
-            long sequence = this.buffer.next();
+        recordLoadedItems(data.size());
+        Iterator<T> iterator = data.iterator();
+        int remaining = data.size();
+        while (remaining > 0 && iterator.hasNext()) {
+            int batchSize = this.sequences.publishBatchSize(remaining);
+            long hi = this.sequences.claimForPublish(batchSize, this::isRunning);
+            if (hi == RingSequences.NO_SEQUENCE) {
+                log.warn("生产者已停止，丢弃{}条未发布的数据：{}", remaining, getName());
+                return;
+            }
+
+            long lo = hi - batchSize + 1;
             try {
-                Ref<T> cacheable = this.buffer.get(sequence);
-                cacheable.set(datum);
+                for (long sequence = lo; sequence <= hi; sequence++) {
+                    Ref<T> cacheable = this.buffer.get(sequence);
+                    // 由 publish 的 volatile 写发布给读线程，无需立即可见
+                    cacheable.lazySet(iterator.hasNext() ? iterator.next() : null);
+                }
             } finally {
-                this.buffer.publish(sequence);
+                this.buffer.publish(lo, hi);
+                reclaimAbandoned();
+                signalPublished();
+                completePendingFutures();
             }
+            remaining -= batchSize;
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 取出全部已发布但未被读操作申请的数据。
+     */
+    @Override
+    protected List<T> drainRemaining() {
+        List<T> values = new ArrayList<>();
+        while (drainPublished(values, this.buffer.getBufferSize()) > 0) {
+            // 读操作并发读取时，分多次取出
         }
+        return values;
     }
 
 }
@@ -0,0 +1,193 @@
+package org.limbo.utils.concurrent.buffer;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.limbo.utils.concurrent.Ref;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * {@link DefaultRingBufferSupplier} 的构造器，可以指定读操作的等待策略、缓冲区的生产者类型、并行的加载任务数量等。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Setter
+@Accessors(fluent = true)
+public final class RingBufferSupplierBuilder<C extends Collection<T>, T> {
+
+    /**
+     * 数据加载器，参数为本次加载的数据量
+     */
+    @Setter(lombok.AccessLevel.NONE)
+    private final IntFunction<C> loader;
+
+    /**
+     * 生产者名称
+     */
+    private String name;
+
+    /**
+     * 缓冲区大小，必须是2的n次幂
+     */
+    private int bufferSize = 1024;
+
+    /**
+     * 是否在启动生产者后立即进行数据加载
+     */
+    private boolean eagerLoad = false;
+
+    /**
+     * 缓冲数据加载因子
+     */
+    private float loadFactor = 0.75f;
+
+    /**
+     * 读操作等待数据发布时的等待策略
+     */
+    private ReadWaitStrategy waitStrategy = ReadWaitStrategy.BLOCKING;
+
+    /**
+     * 缓冲区的生产者类型，加载任务数量大于1时必须是 {@link ProducerType#MULTI}
+     */
+    private ProducerType producerType = ProducerType.SINGLE;
+
+    /**
+     * 并行的加载任务数量
+     */
+    private int loaderParallelism = 1;
+
+    /**
+     * 读模式
+     */
+    private RingBufferSupplier.ReadMode readMode = RingBufferSupplier.ReadMode.SEMAPHORE;
+
+    /**
+     * 加载线程空闲策略
+     */
+    private LoadIdleStrategy loadIdleStrategy = LoadIdleStrategy.BLOCKING;
+
+    /**
+     * 是否在虚拟线程中执行加载任务，运行时不支持虚拟线程时使用平台线程
+     */
+    private boolean virtualThreadLoader = false;
+
+    /**
+     * 共享的加载调度器，设置后加载任务数量与加载线程空闲策略不生效
+     */
+    private SupplierLoadScheduler loadScheduler;
+
+    private RingBufferSupplierBuilder(IntFunction<C> loader) {
+        this.loader = Objects.requireNonNull(loader);
+    }
+
+
+    /**
+     * @param loader 真正进行数据生产的生产者，将批量生产数据，并以集合形式返回。
+     */
+    public static <C extends Collection<T>, T> RingBufferSupplierBuilder<C, T> newBuilder(Supplier<C> loader) {
+        Objects.requireNonNull(loader);
+        return new RingBufferSupplierBuilder<>(size -> loader.get());
+    }
+
+
+    /**
+     * @param loader 真正进行数据生产的生产者，参数为本次加载的数据量。
+     */
+    public static <C extends Collection<T>, T> RingBufferSupplierBuilder<C, T> newBatchBuilder(IntFunction<C> loader) {
+        return new RingBufferSupplierBuilder<>(loader);
+    }
+
+
+    /**
+     * 构造生产者，生产者需要调用 {@link BufferedSupplier#start()} 启动。
+     * 重复调用此方法，每次会生成不同的生产者。
+     *
+     * @throws IllegalArgumentException 加载任务数量大于1，但生产者类型不是 {@link ProducerType#MULTI}
+     */
+    public DefaultRingBufferSupplier<C, T> build() {
+        if (this.loaderParallelism <= 0) {
+            throw new IllegalArgumentException("loaderParallelism must be positive");
+        }
+        if (this.loaderParallelism > 1 && this.producerType != ProducerType.MULTI) {
+            throw new IllegalArgumentException("多个加载任务并发写入缓冲区时，producerType必须为MULTI");
+        }
+
+        RingBuffer<Ref<T>> buffer = RingBuffer.create(
+                Objects.requireNonNull(this.producerType), Ref::new, this.bufferSize, this.waitStrategy.newWaitStrategy());
+        DefaultRingBufferSupplier<C, T> supplier = new DefaultRingBufferSupplier<>(buffer, this.eagerLoad, this.producerType, this.loader);
+        supplier.setName(this.name);
+        supplier.setLoadFactor(this.loadFactor);
+        supplier.setReadMode(Objects.requireNonNull(this.readMode));
+        supplier.setLoadIdleStrategy(Objects.requireNonNull(this.loadIdleStrategy));
+        supplier.setLoaderParallelism(this.loaderParallelism);
+        supplier.setVirtualThreadLoader(this.virtualThreadLoader);
+        supplier.setLoadScheduler(this.loadScheduler);
+        return supplier;
+    }
+
+
+    /**
+     * 读操作等待数据发布时的等待策略，对应 Disruptor 的 {@link WaitStrategy}
+     */
+    public enum ReadWaitStrategy {
+
+        /**
+         * 自旋等待，延迟最低，但等待时会持续占满CPU，只适合读线程数少于CPU核数的场景
+         */
+        BUSY_SPIN {
+            @Override
+            WaitStrategy newWaitStrategy() {
+                return new BusySpinWaitStrategy();
+            }
+        },
+
+        /**
+         * 自旋后让出CPU，延迟低，等待时占用CPU
+         */
+        YIELDING {
+            @Override
+            WaitStrategy newWaitStrategy() {
+                return new YieldingWaitStrategy();
+            }
+        },
+
+        /**
+         * 自旋、让出CPU后短暂休眠，兼顾延迟与CPU占用
+         */
+        SLEEPING {
+            @Override
+            WaitStrategy newWaitStrategy() {
+                return new SleepingWaitStrategy();
+            }
+        },
+
+        /**
+         * 通过锁与条件阻塞等待，等待时不占用CPU，默认策略。读线程是虚拟线程时应使用此策略
+         */
+        BLOCKING {
+            @Override
+            WaitStrategy newWaitStrategy() {
+                return new BlockingWaitStrategy();
+            }
+        };
+
+
+        /**
+         * 创建等待策略，每个缓冲区使用单独的等待策略实例
+         */
+        abstract WaitStrategy newWaitStrategy();
+
+    }
+
+}
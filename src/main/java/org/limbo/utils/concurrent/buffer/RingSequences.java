@@ -0,0 +1,324 @@
+package org.limbo.utils.concurrent.buffer;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Cursored;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequenced;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.TimeoutException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * 环形缓冲区的读写索引，{@link RingBufferSupplier} 与 {@link LongRingBufferSupplier} 共用。
+ * <br/>
+ * 读操作CAS更新读索引申请读取位置，读取完成后按顺序推进已消费索引；生产者以已消费索引作为门禁，
+ * 读操作申请了读索引但还未读取时，数据不会被覆盖。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+final class RingSequences {
+
+    /**
+     * 申请读取的超时时间
+     */
+    static final long ACCESS_TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * 申请读取失败后，让出CPU的次数，超过次数后短暂阻塞线程
+     */
+    private static final int ACCESS_YIELD_TRIES = 100;
+
+    /**
+     * 申请读取失败后，短暂阻塞线程的时长
+     */
+    private static final long ACCESS_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * 发布数据时缓冲区已满，等待读操作释放槽位的时长
+     */
+    private static final long PUBLISH_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * 申请读索引、写索引失败时返回的索引
+     */
+    static final long NO_SEQUENCE = Long.MIN_VALUE;
+
+    /**
+     * 写索引游标
+     */
+    private final Cursored cursor;
+
+    /**
+     * 写索引控制器，与 {@link #cursor} 是同一个对象
+     */
+    private final Sequenced sequenced;
+
+    /**
+     * 计算槽位的掩码
+     */
+    private final int mask;
+
+    /**
+     * 读索引，读操作申请读取位置时，CAS更新此索引
+     */
+    private final Sequence sequence;
+
+    /**
+     * 已消费索引，此索引之前（包括此索引）的数据都已被读取完成，生产者写入数据时不会超过此索引
+     */
+    private final Sequence consumedSequence;
+
+    /**
+     * 缓冲区每个槽位上最后一次被读取完成的读索引，用于在并发读乱序完成时，按顺序推进已消费索引
+     */
+    private final AtomicLongArray consumedFlags;
+
+    /**
+     * 检测数据是否已发布的阻塞器，只在游标已超过读索引时使用，不会阻塞，也不会被alert
+     */
+    private final SequenceBarrier publishedBarrier;
+
+
+    private RingSequences(Cursored cursor, Sequenced sequenced, SequenceBarrier publishedBarrier) {
+        int bufferSize = sequenced.getBufferSize();
+        this.cursor = cursor;
+        this.sequenced = sequenced;
+        this.mask = bufferSize - 1;
+        this.sequence = new Sequence();
+        this.consumedSequence = new Sequence();
+        this.consumedFlags = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            this.consumedFlags.lazySet(i, -1L);
+        }
+        this.publishedBarrier = publishedBarrier;
+    }
+
+
+    /**
+     * 创建 RingBuffer 的读写索引，并以已消费索引作为 RingBuffer 的门禁
+     */
+    static RingSequences of(RingBuffer<?> buffer) {
+        RingSequences sequences = new RingSequences(buffer, buffer, buffer.newBarrier());
+        buffer.addGatingSequences(sequences.consumedSequence);
+        return sequences;
+    }
+
+
+    /**
+     * 创建 Sequencer 的读写索引，并以已消费索引作为 Sequencer 的门禁
+     */
+    static RingSequences of(Sequencer sequencer) {
+        RingSequences sequences = new RingSequences(sequencer, sequencer, sequencer.newBarrier());
+        sequencer.addGatingSequences(sequences.consumedSequence);
+        return sequences;
+    }
+
+
+    /**
+     * 计算槽位下标
+     */
+    int indexOf(long sequence) {
+        return (int) (sequence & this.mask);
+    }
+
+
+    /**
+     * 不检测并发读数量，直接申请 count 个连续的读索引，由调用方限制并发读的数量
+     *
+     * @return 申请到的最后一个读索引
+     */
+    long claim(int count) {
+        return this.sequence.addAndGet(count);
+    }
+
+
+    /**
+     * 无锁申请 count 个连续的读索引。根据读索引与已消费索引的差值，计算已申请但未读取完成的读索引数量，
+     * 不超过 <code>bufferSize - 1</code> 时才CAS更新读索引，需要留一个槽位给生产者写入数据。
+     *
+     * @param count 申请的读索引数量
+     * @param timeoutNanos 申请读取的超时时间
+     * @return 申请到的最后一个读索引，超时未申请到时返回 {@link #NO_SEQUENCE}
+     */
+    long claim(int count, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int idleCount = 0;
+        while (true) {
+            long current = this.sequence.get();
+            long last = current + count;
+            if (last - this.consumedSequence.get() <= this.mask) {
+                if (this.sequence.compareAndSet(current, last)) {
+                    return last;
+                }
+                continue;
+            }
+
+            // 超过上限，等待其他读操作完成
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return NO_SEQUENCE;
+            }
+            if (idleCount++ < ACCESS_YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, ACCESS_PARK_NANOS);
+            }
+        }
+    }
+
+
+    /**
+     * 只申请一个已经发布的读索引，CAS更新读索引，保证一个读索引只会被一个线程拿到
+     *
+     * @return 申请到的读索引，没有已发布的数据时返回 {@link #NO_SEQUENCE}
+     */
+    long claimPublished() {
+        long current;
+        do {
+            current = this.sequence.get();
+            if (highestPublished(current + 1) <= current) {
+                return NO_SEQUENCE;
+            }
+        } while (!this.sequence.compareAndSet(current, current + 1));
+        return current + 1;
+    }
+
+
+    /**
+     * 只申请已经发布的读索引，最多 maxElements 个，CAS更新读索引，保证一个读索引只会被一个线程拿到。
+     * 申请到的读索引依次交给 reader 读取，读取后标记为已消费；reader 抛出异常时，抛出异常的读索引与之后未读取的读索引依次交给 unread，
+     * 由调用方取出数据留给之后的读操作，然后标记为已消费，否则已消费索引无法推进。申请到的读索引都已发布，unread 可以直接读取槽位上的数据。
+     *
+     * @param maxElements 最多申请的读索引数量
+     * @param reader 读取读索引上的数据，抛出异常时不能清空槽位上的数据
+     * @param unread 取出未读取的读索引上的数据
+     * @return 申请到的读索引数量，没有已发布的数据时返回0
+     */
+    int drainPublished(int maxElements, LongConsumer reader, LongConsumer unread) {
+        long current;
+        long last;
+        do {
+            current = this.sequence.get();
+            last = Math.min(highestPublished(current + 1), current + maxElements);
+            if (last <= current) {
+                return 0;
+            }
+        } while (!this.sequence.compareAndSet(current, last));
+
+        long seq = current + 1;
+        try {
+            for (; seq <= last; seq++) {
+                reader.accept(seq);
+                markConsumed(seq);
+            }
+        } finally {
+            for (; seq <= last; seq++) {
+                unread.accept(seq);
+                markConsumed(seq);
+            }
+        }
+        return (int) (last - current);
+    }
+
+
+    /**
+     * 是否有已发布但还未被读操作申请的数据。多生产者时，游标之前的数据可能还未发布，不能只比较游标与读索引
+     */
+    boolean hasPublished() {
+        long current = this.sequence.get();
+        return highestPublished(current + 1) > current;
+    }
+
+
+    /**
+     * 计算读索引 sequence 开始连续发布的最大索引，不会阻塞。多生产者时，cursor之前的索引可能还没有发布。
+     *
+     * @return 连续发布的最大索引，sequence 上的数据还未发布时返回 <code>sequence - 1</code>
+     */
+    long highestPublished(long sequence) {
+        if (this.cursor.getCursor() < sequence) {
+            return sequence - 1;
+        }
+
+        try {
+            // 游标已超过读索引，等待策略直接返回，由Sequencer计算连续发布的最大索引
+            return this.publishedBarrier.waitFor(sequence);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return sequence - 1;
+        } catch (AlertException | TimeoutException e) {
+            return sequence - 1;
+        }
+    }
+
+
+    /**
+     * 标记读索引上的数据已被读取，并尽可能推进已消费索引。
+     * 并发读时，读操作可能乱序完成，已消费索引只能推进到连续读取完成的位置；
+     * 先标记再检测，保证乱序完成的读操作中，至少有一个能看到其他读操作的标记，从而不会遗漏推进。
+     */
+    void markConsumed(long sequence) {
+        this.consumedFlags.set(indexOf(sequence), sequence);
+
+        long consumed = this.consumedSequence.get();
+        while (this.consumedFlags.get(indexOf(consumed + 1)) == consumed + 1) {
+            if (this.consumedSequence.compareAndSet(consumed, consumed + 1)) {
+                consumed++;
+            } else {
+                consumed = this.consumedSequence.get();
+            }
+        }
+    }
+
+
+    /**
+     * 已发布但还未被读操作申请的数据量。已被申请但还未读取完成的数据，不能再被其他读操作拿到，不计入剩余数据量，
+     * 否则读操作申请的读索引超过已发布的索引时，可能无法触发数据加载
+     */
+    long remaining() {
+        long remainingSize = this.cursor.getCursor() - this.sequence.get();
+        return remainingSize < 0 ? 0 : remainingSize;
+    }
+
+
+    /**
+     * 申请 count 个写索引，缓冲区已满时等待读操作释放槽位。等待期间 running 返回false时放弃发布，
+     * 避免加载线程永远阻塞，导致加载线程池无法终止。
+     *
+     * @param count 申请的写索引数量
+     * @param running 生产者是否还在运行
+     * @return 申请到的最后一个写索引，生产者已停止时返回 {@link #NO_SEQUENCE}
+     */
+    long claimForPublish(int count, BooleanSupplier running) {
+        while (true) {
+            try {
+                return this.sequenced.tryNext(count);
+            } catch (InsufficientCapacityException e) {
+                if (!running.getAsBoolean()) {
+                    return NO_SEQUENCE;
+                }
+                LockSupport.parkNanos(this, PUBLISH_PARK_NANOS);
+            }
+        }
+    }
+
+
+    /**
+     * 发布数据时，单批发布的数量，不超过申请时缓冲区的剩余容量；缓冲区已满时为1，逐个等待读操作释放槽位
+     */
+    int publishBatchSize(long remaining) {
+        return (int) Math.min(remaining, Math.max(1L, this.sequenced.remainingCapacity()));
+    }
+
+}
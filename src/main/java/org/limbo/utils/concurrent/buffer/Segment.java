@@ -0,0 +1,68 @@
+package org.limbo.utils.concurrent.buffer;
+
+import lombok.Getter;
+
+/**
+ * 号段，表示一段等差的long值：<code>start, start + step, ..., start + (count - 1) * step</code>。
+ * 加载号段时只需要返回号段的起止信息，不需要生成号段内的每一个值。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Getter
+public final class Segment {
+
+    /**
+     * 号段的第一个值
+     */
+    private final long start;
+
+    /**
+     * 相邻两个值的差
+     */
+    private final long step;
+
+    /**
+     * 号段内值的数量
+     */
+    private final long count;
+
+
+    public Segment(long start, long step, long count) {
+        if (step == 0) {
+            throw new IllegalArgumentException("step must not be 0");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+
+        this.start = start;
+        this.step = step;
+        this.count = count;
+    }
+
+
+    /**
+     * 步长为1的号段，包含 [start, end) 范围内的值
+     * @param start 起始值，包含
+     * @param end 结束值，不包含
+     */
+    public static Segment range(long start, long end) {
+        return new Segment(start, 1, end - start);
+    }
+
+
+    /**
+     * 获取号段内第 index 个值
+     */
+    public long valueAt(long index) {
+        return this.start + index * this.step;
+    }
+
+
+    @Override
+    public String toString() {
+        return "Segment{start=" + start + ", step=" + step + ", count=" + count + "}";
+    }
+
+}
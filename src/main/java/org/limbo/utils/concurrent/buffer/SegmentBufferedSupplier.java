@@ -0,0 +1,402 @@
+package org.limbo.utils.concurrent.buffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于号段的带缓存生产者，适用于ID分配等场景。
+ * 加载数据时只加载号段 {@link Segment}，号段内的值在读取时才计算，不需要生成并缓存每一个值。
+ * <br/>
+ * 采用双号段缓存：当前号段剩余的值低于 <code>号段大小 * loadFactor</code> 时，异步预加载下一个号段；
+ * 当前号段读取完后切换到下一个号段。预加载足够及时的情况下，读操作只有一次CAS，不会等待号段加载。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Slf4j
+public abstract class SegmentBufferedSupplier extends AsyncLoadBufferedSupplier<Long> implements LongSupplier {
+
+    /**
+     * 等待号段加载的超时时间
+     */
+    private static final long ACCESS_TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * 当前正在读取的号段
+     */
+    private volatile SegmentBuffer current;
+
+    /**
+     * 预加载的号段，按加载顺序切换。并发加载时可能有多个，后发布的号段排队，不会覆盖未读取的号段
+     */
+    private final Queue<SegmentBuffer> nextSegments;
+
+    /**
+     * 切换号段、等待号段加载时使用的锁
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * 号段加载完成的条件
+     */
+    private final Condition segmentLoaded;
+
+
+    /**
+     * @param eagerLoad 是否在启动生产者后立即加载号段
+     */
+    public SegmentBufferedSupplier(boolean eagerLoad) {
+        // 号段的大小由加载的号段决定，不使用固定的缓冲区大小，见 getBufferSize
+        super(0, eagerLoad);
+        this.nextSegments = new ConcurrentLinkedQueue<>();
+        this.lock = new ReentrantLock();
+        this.segmentLoaded = this.lock.newCondition();
+    }
+
+
+    /**
+     * 从当前号段中取出一个值，不会装箱。当前号段读取完时，切换到预加载的号段，或等待号段加载完成。
+     * 读取失败时，{@link #onGetError(Throwable)} 返回的结果作为读取结果，返回null时抛出异常。
+     */
+    @Override
+    public long getAsLong() {
+        // 检测是否还在运行
+        if (!isRunning()) {
+            return unboxErrorResult(new IllegalStateException("此生产者已经停止：" + getName()));
+        }
+
+        long deadline = 0;
+        while (true) {
+            // 快速路径，一次CAS从当前号段申请一个值
+            SegmentBuffer buffer = this.current;
+            if (buffer != null) {
+                long index = buffer.position.getAndIncrement();
+                if (index < buffer.segment.getCount()) {
+                    // 检测是否需要预加载下一个号段
+                    recordConsumed(1);
+                    checkAndLoadData();
+                    return buffer.segment.valueAt(index);
+                }
+            }
+
+            // 当前号段已读取完，切换号段或等待号段加载
+            if (!isRunning()) {
+                return unboxErrorResult(new IllegalStateException("此生产者已经停止：" + getName()));
+            }
+            if (shouldFailFast()) {
+                return unboxErrorResult(newFailFastException());
+            }
+            if (deadline == 0) {
+                deadline = System.nanoTime() + ACCESS_TIMEOUT;
+            }
+            try {
+                if (!switchSegment(buffer, deadline)) {
+                    recordAcquireTimeout();
+                    return unboxErrorResult(new IllegalStateException("等待号段加载超时：" + getName()));
+                }
+            } catch (InterruptedException e) {
+                log.error("等待号段加载异常", e);
+                return unboxErrorResult(e);
+            }
+        }
+    }
+
+
+    /**
+     * 从当前号段中取出一个值，会将读取结果装箱，需要避免装箱时使用 {@link #getAsLong()}。
+     */
+    @Override
+    public Long get() {
+        return getAsLong();
+    }
+
+
+    /**
+     * 当前号段已读取完时，切换到预加载的号段；没有预加载的号段时，触发加载并等待。
+     *
+     * @param exhausted 已读取完的号段
+     * @param deadline 等待的截止时间
+     * @return 是否可以重新尝试读取，等待超时返回false
+     */
+    private boolean switchSegment(SegmentBuffer exhausted, long deadline) throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (this.current == exhausted) {
+                // 生产者已停止，由读操作重新检测状态
+                if (!isRunning()) {
+                    break;
+                }
+
+                // 已有预加载的号段，直接切换
+                SegmentBuffer next = this.nextSegments.poll();
+                if (next != null) {
+                    this.current = next;
+                    break;
+                }
+
+                // 加载熔断，不会再有号段发布，由读操作立即失败
+                if (isLoadCircuitOpen()) {
+                    break;
+                }
+
+                // 没有预加载的号段，触发加载并等待
+                loadData();
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0) {
+                    return false;
+                }
+                if (isBlockedTimeRecorded()) {
+                    recordBlocked(nanos - this.segmentLoaded.awaitNanos(nanos));
+                } else {
+                    this.segmentLoaded.awaitNanos(nanos);
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        // 切换后当前号段可能已低于加载阈值，检测是否需要预加载
+        checkAndLoadData();
+        return true;
+    }
+
+
+    /**
+     * 读取异常时，将 {@link #onGetError(Throwable)} 的处理结果作为读取结果
+     */
+    private long unboxErrorResult(Throwable throwable) {
+        Long value = onGetError(throwable);
+        if (value == null) {
+            throw new IllegalStateException("读取数据异常", throwable);
+        }
+        return value;
+    }
+
+
+    /**
+     * 当前号段剩余的值低于 <code>号段大小 * loadFactor</code>，且没有预加载的号段时，需要加载下一个号段
+     */
+    @Override
+    protected boolean needLoadData() {
+        if (!this.nextSegments.isEmpty()) {
+            return false;
+        }
+
+        SegmentBuffer current = this.current;
+        if (current == null) {
+            return true;
+        }
+        long loadThreshold = (long) (current.segment.getCount() * getLoadFactor());
+        return current.remaining() < loadThreshold;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 当前号段与预加载号段中剩余的值的数量。
+     * @return
+     */
+    @Override
+    protected long getRemainingSize() {
+        SegmentBuffer current = this.current;
+        long remainingSize = current == null ? 0 : current.remaining();
+        for (SegmentBuffer next : this.nextSegments) {
+            remainingSize += next.remaining();
+        }
+        return remainingSize;
+    }
+
+
+    /**
+     * 号段生产者没有固定的缓冲区大小，以当前号段与预加载号段的大小之和作为缓冲区大小，还未加载号段时为0。
+     */
+    @Override
+    public long getBufferSize() {
+        SegmentBuffer current = this.current;
+        long bufferSize = current == null ? 0 : current.segment.getCount();
+        for (SegmentBuffer next : this.nextSegments) {
+            bufferSize += next.segment.getCount();
+        }
+        return bufferSize;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 号段生产者没有固定的缓冲区大小，以当前号段的大小计算填充率。
+     */
+    @Override
+    protected double getFillRatio() {
+        SegmentBuffer current = this.current;
+        if (current == null || current.segment.getCount() <= 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, (double) getRemainingSize() / current.segment.getCount());
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 取出当前号段与预加载号段中剩余的值。号段较大时，取出的列表也会较大。
+     */
+    @Override
+    protected List<Long> drainRemaining() {
+        List<Long> values = new ArrayList<>();
+        this.lock.lock();
+        try {
+            drainSegment(this.current, values);
+            SegmentBuffer next;
+            while ((next = this.nextSegments.poll()) != null) {
+                drainSegment(next, values);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return values;
+    }
+
+
+    /**
+     * 将号段的读取位置移到末尾，并取出剩余的值
+     */
+    private void drainSegment(SegmentBuffer buffer, List<Long> values) {
+        if (buffer == null) {
+            return;
+        }
+
+        long count = buffer.segment.getCount();
+        long index = buffer.position.getAndSet(count);
+        for (; index < count; index++) {
+            values.add(buffer.segment.valueAt(index));
+        }
+    }
+
+
+    /**
+     * 加载下一个号段
+     */
+    protected abstract Segment loadSegment();
+
+
+    /**
+     * {@inheritDoc}
+     * 已有预加载的号段时跳过，不会重复加载。
+     */
+    @Override
+    protected boolean tryLoadData() {
+        // 加载许可可能在号段加载过程中再次下发，此时已有预加载号段，跳过，避免浪费号段
+        if (!needLoadData()) {
+            return false;
+        }
+
+        doLoadData();
+        return true;
+    }
+
+
+    /**
+     * 加载并发布下一个号段
+     */
+    @Override
+    protected void doLoadData() {
+        Segment segment = loadSegment();
+        if (segment != null) {
+            publishSegment(segment);
+        }
+    }
+
+
+    /**
+     * 发布号段，并唤醒等待号段的读操作。号段按发布顺序读取：当前号段已读取完时，切换到最早的预加载号段，
+     * 否则加入预加载号段的队尾，已有预加载号段时也不会覆盖。
+     *
+     * @param segment 待发布的号段
+     */
+    protected void publishSegment(Segment segment) {
+        SegmentBuffer buffer = new SegmentBuffer(segment);
+        recordLoadedItems(segment.getCount());
+        this.lock.lock();
+        try {
+            this.nextSegments.offer(buffer);
+            SegmentBuffer current = this.current;
+            if (current == null || current.remaining() <= 0) {
+                this.current = this.nextSegments.poll();
+            }
+            this.segmentLoaded.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 唤醒等待号段加载的读操作。
+     */
+    @Override
+    protected void onShutdown() {
+        super.onShutdown();
+        signalSegmentLoaded();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 熔断期间不会再加载号段，唤醒等待号段加载的读操作。
+     */
+    @Override
+    protected void onLoadCircuitOpened() {
+        signalSegmentLoaded();
+    }
+
+
+    /**
+     * 唤醒等待号段加载的读操作，由读操作重新检测状态
+     */
+    private void signalSegmentLoaded() {
+        this.lock.lock();
+        try {
+            this.segmentLoaded.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 号段及其读取位置
+     */
+    private static class SegmentBuffer {
+
+        private final Segment segment;
+
+        /**
+         * 下一个读取的值在号段中的下标，读取完后可能超过号段大小
+         */
+        private final AtomicLong position;
+
+        SegmentBuffer(Segment segment) {
+            this.segment = segment;
+            this.position = new AtomicLong(0L);
+        }
+
+        /**
+         * 号段中剩余的值的数量
+         */
+        long remaining() {
+            long remaining = this.segment.getCount() - this.position.get();
+            return remaining < 0 ? 0 : remaining;
+        }
+
+    }
+
+}
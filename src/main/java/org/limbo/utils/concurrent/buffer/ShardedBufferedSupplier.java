@@ -0,0 +1,273 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * 分片的带缓存生产者，将读操作分散到多个 {@link RingBufferSupplier} 分片上，避免多核下所有读线程竞争同一个读索引。
+ * <br/>
+ * 读线程按线程ID选择自己的分片，优先从自己的分片无锁读取；自己的分片没有数据时，依次从相邻分片窃取，
+ * 所有分片都没有数据时，在自己的分片上等待数据加载。每个分片独立加载数据，可以为分片设置同一个 {@link SupplierLoadScheduler} 共享加载线程。
+ * <br/>
+ * 读取的顺序只在单个分片内有序，分片之间无序。自适应加载、指标统计、熔断等需要在各个分片上设置。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class ShardedBufferedSupplier<T> extends BufferedSupplier<T> {
+
+    /**
+     * 分片
+     */
+    private final List<RingBufferSupplier<T>> shards;
+
+
+    /**
+     * @param shards 分片，启动、关闭此生产者时会启动、关闭全部分片
+     */
+    public ShardedBufferedSupplier(List<? extends RingBufferSupplier<T>> shards) {
+        super(totalBufferSize(shards), false);
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    }
+
+
+    /**
+     * 创建分片的生产者
+     *
+     * @param shardCount 分片数量，一般不超过CPU核数
+     * @param shardFactory 分片的构造方法，参数为分片下标
+     */
+    public static <T> ShardedBufferedSupplier<T> create(int shardCount, IntFunction<? extends RingBufferSupplier<T>> shardFactory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+
+        List<RingBufferSupplier<T>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(Objects.requireNonNull(shardFactory.apply(i)));
+        }
+        return new ShardedBufferedSupplier<>(shards);
+    }
+
+
+    private static long totalBufferSize(List<? extends RingBufferSupplier<?>> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("shards must not be empty");
+        }
+        return shards.stream().mapToLong(shard -> shard.getBufferSize()).sum();
+    }
+
+
+    /**
+     * 全部分片，不可修改
+     */
+    public List<RingBufferSupplier<T>> getShards() {
+        return this.shards;
+    }
+
+
+    /**
+     * 优先从当前线程的分片读取，没有数据时从相邻分片窃取，所有分片都没有数据时，在当前线程的分片上等待。
+     * 读取失败时，{@link #onGetError(Throwable)} 返回的结果作为读取结果。
+     */
+    @Override
+    public T get() {
+        if (!isRunning()) {
+            return onGetError(new IllegalStateException("此生产者已经停止：" + getName()));
+        }
+
+        int home = homeShard();
+        T value = tryGet(home);
+        if (value != null) {
+            return value;
+        }
+        return this.shards.get(home).get();
+    }
+
+
+    /**
+     * 不等待数据加载，从当前线程的分片或相邻分片读取一个值
+     *
+     * @return 所有分片都没有数据时返回empty
+     */
+    public Optional<T> tryGet() {
+        if (!isRunning()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tryGet(homeShard()));
+    }
+
+
+    /**
+     * 从 home 分片开始依次尝试读取，读取到数据的分片如果低于加载阈值，会触发该分片加载数据
+     */
+    private T tryGet(int home) {
+        int shardCount = this.shards.size();
+        for (int i = 0; i < shardCount; i++) {
+            int index = home + i;
+            Optional<T> value = this.shards.get(index < shardCount ? index : index - shardCount).tryGet();
+            if (value.isPresent()) {
+                return value.get();
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * 批量获取多个元素。先取出当前线程的分片与相邻分片中已发布的数据，不足时在当前线程的分片上等待。
+     *
+     * @param n 需要获取的元素数量
+     * @return 获取到的元素，读取失败时，元素数量可能少于请求的数量
+     */
+    @Override
+    public List<T> get(int n) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        if (!isRunning()) {
+            return super.get(n);
+        }
+
+        List<T> values = new ArrayList<>(n);
+        int home = homeShard();
+        int shardCount = this.shards.size();
+        for (int i = 0; i < shardCount && values.size() < n; i++) {
+            int index = home + i;
+            this.shards.get(index < shardCount ? index : index - shardCount).drainTo(values, n - values.size());
+        }
+
+        if (values.size() < n) {
+            values.addAll(this.shards.get(home).get(n - values.size()));
+        }
+        return values;
+    }
+
+
+    /**
+     * 异步获取一个元素。有分片可以立即读取时直接完成，否则在当前线程的分片上等待数据发布。
+     */
+    @Override
+    public CompletableFuture<T> getAsync() {
+        if (isRunning()) {
+            int home = homeShard();
+            T value = tryGet(home);
+            if (value != null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            return this.shards.get(home).getAsync();
+        }
+        return super.getAsync();
+    }
+
+
+    /**
+     * 当前线程的分片下标。线程ID通常是连续分配的，直接取模即可使线程均匀分布到各个分片。
+     */
+    private int homeShard() {
+        return (int) (Thread.currentThread().getId() % this.shards.size());
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 所有分片剩余数据量之和。
+     * @return
+     */
+    @Override
+    protected long getRemainingSize() {
+        long remainingSize = 0;
+        for (RingBufferSupplier<T> shard : this.shards) {
+            remainingSize += shard.getRemainingSize();
+        }
+        return remainingSize;
+    }
+
+
+    /**
+     * 启动全部分片
+     */
+    @Override
+    protected void onStart() {
+        this.shards.forEach(BufferedSupplier::start);
+    }
+
+
+    /**
+     * 关闭全部分片
+     */
+    @Override
+    protected void onShutdown() {
+        this.shards.forEach(BufferedSupplier::shutdown);
+    }
+
+
+    /**
+     * 全部分片停止加载数据
+     */
+    @Override
+    protected void stopLoading() {
+        super.stopLoading();
+        this.shards.forEach(BufferedSupplier::stopLoading);
+    }
+
+
+    /**
+     * 是否有分片正在加载数据
+     */
+    @Override
+    protected boolean isLoading() {
+        for (RingBufferSupplier<T> shard : this.shards) {
+            if (shard.isLoading()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 取出全部分片中未被读取的数据。
+     */
+    @Override
+    protected List<T> drainRemaining() {
+        List<T> values = new ArrayList<>();
+        for (RingBufferSupplier<T> shard : this.shards) {
+            values.addAll(shard.drainRemaining());
+        }
+        return values;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 等待全部分片终止。
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (RingBufferSupplier<T> shard : this.shards) {
+            if (!shard.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return super.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * 各个分片独立检测是否需要加载数据
+     */
+    @Override
+    protected void loadData() {
+        this.shards.forEach(BufferedSupplier::checkAndLoadData);
+    }
+
+}
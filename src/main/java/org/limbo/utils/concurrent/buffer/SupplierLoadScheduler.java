@@ -0,0 +1,356 @@
+package org.limbo.utils.concurrent.buffer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 多个生产者共享的数据加载调度器，使用少量线程执行多个 {@link AsyncLoadBufferedSupplier} 的数据加载。
+ * <br/>
+ * 每个生产者同一时刻最多只有一个加载在排队或执行，加载期间再次触发的加载会在本次加载完成后重新排队。
+ * 空闲的加载线程优先加载缓冲区填充率（剩余数据量 / 缓冲区大小）最低的生产者，填充率相同时先触发的先加载；
+ * 加载失败退避或熔断中的生产者，在暂停结束前不会被调度。
+ * <br/>
+ * 调度线程为守护线程，生产者关闭时会从调度器中移除，不再需要调度器时调用 {@link #shutdown()} 停止调度线程。
+ * 加载线程是共享的，数据加载器不应长时间阻塞。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Slf4j
+public class SupplierLoadScheduler {
+
+    /**
+     * 调度器名称，用作调度线程名称的前缀
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * 调度线程
+     */
+    private final List<Thread> workers;
+
+    /**
+     * 等待加载的生产者，按触发顺序排列
+     */
+    private final List<LoadEntry> pending;
+
+    /**
+     * 保护等待队列与加载状态的锁
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * 有生产者等待加载的条件
+     */
+    private final Condition loadPending;
+
+    /**
+     * 调度器是否在运行中
+     */
+    private volatile boolean running;
+
+
+    /**
+     * @param threads 调度线程数
+     */
+    public SupplierLoadScheduler(int threads) {
+        this("supplier-load-scheduler", threads);
+    }
+
+
+    /**
+     * @param name 调度器名称，用作调度线程名称的前缀
+     * @param threads 调度线程数
+     */
+    public SupplierLoadScheduler(String name, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+
+        this.name = Objects.requireNonNull(name);
+        this.pending = new ArrayList<>();
+        this.lock = new ReentrantLock();
+        this.loadPending = this.lock.newCondition();
+        this.running = true;
+
+        this.workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::runWorker, name + "-" + i);
+            worker.setDaemon(true);
+            this.workers.add(worker);
+        }
+        this.workers.forEach(Thread::start);
+    }
+
+
+    /**
+     * 调度器是否在运行中
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+
+    /**
+     * 停止调度器，等待中的加载将被丢弃，正在执行的加载会执行完成。
+     * 使用此调度器的生产者将无法再加载数据，之后触发加载时抛出 {@link IllegalStateException}，读操作会立即失败。
+     */
+    public void shutdown() {
+        this.lock.lock();
+        try {
+            this.running = false;
+            this.pending.forEach(entry -> entry.queued = false);
+            this.pending.clear();
+            this.loadPending.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 等待调度线程全部退出
+     *
+     * @return 超时前调度线程是否已全部退出
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : this.workers) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (millis <= 0 && worker.isAlive()) {
+                return false;
+            }
+            worker.join(Math.max(1L, millis));
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * 注册生产者，生产者启动时调用
+     */
+    LoadEntry register(AsyncLoadBufferedSupplier<?> supplier) {
+        if (!this.running) {
+            throw new IllegalStateException("此调度器已经停止：" + this.name);
+        }
+        return new LoadEntry(supplier);
+    }
+
+
+    /**
+     * 移除生产者，生产者关闭时调用。等待中的加载将被丢弃，正在执行的加载会执行完成。
+     */
+    void deregister(LoadEntry entry) {
+        this.lock.lock();
+        try {
+            entry.cancelled = true;
+            if (entry.queued) {
+                this.pending.remove(entry);
+                entry.queued = false;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 触发一次加载。生产者已有加载在排队时不会重复排队；正在加载时，本次加载完成后重新排队，保证不会丢失加载请求。
+     *
+     * @throws IllegalStateException 调度器已经停止，不会再加载数据
+     */
+    void schedule(LoadEntry entry) {
+        // 调度器停止后不会再加载数据，读操作等待加载只会等到超时，需要立即失败
+        if (!this.running) {
+            throw new IllegalStateException("此调度器已经停止：" + this.name);
+        }
+
+        // 与加载任务的许可一样，使用CAS合并重复的加载请求，读操作频繁触发时不需要竞争锁
+        if (!entry.permitted.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.lock.lock();
+        try {
+            enqueue(entry);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 生产者有加载许可，且未在排队、未在加载时，加入等待队列并唤醒一个调度线程。需要持有锁。
+     */
+    private void enqueue(LoadEntry entry) {
+        if (!this.running || entry.cancelled || entry.queued || entry.loading || !entry.permitted.get()) {
+            return;
+        }
+
+        this.pending.add(entry);
+        entry.queued = true;
+        this.loadPending.signal();
+    }
+
+
+    /**
+     * 调度线程的执行逻辑
+     */
+    private void runWorker() {
+        while (this.running) {
+            LoadEntry entry;
+            try {
+                entry = takeMostUrgent();
+            } catch (InterruptedException e) {
+                log.warn("调度线程被中断，停止调度：{}", Thread.currentThread().getName());
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (entry == null) {
+                continue;
+            }
+
+            load(entry);
+        }
+    }
+
+
+    /**
+     * 取出可加载的生产者中填充率最低的一个，没有可加载的生产者时等待。
+     *
+     * @return 待加载的生产者，调度器停止或被提前唤醒时返回null
+     */
+    private LoadEntry takeMostUrgent() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            if (!this.running) {
+                return null;
+            }
+
+            long now = System.nanoTime();
+            LoadEntry urgent = null;
+            double urgentRatio = Double.MAX_VALUE;
+            long nextResumeAt = 0;
+            boolean paused = false;
+            for (LoadEntry entry : this.pending) {
+                // 退避或熔断中的生产者，暂停结束前不调度
+                if (entry.resumeAt - now > 0) {
+                    if (!paused || entry.resumeAt - nextResumeAt < 0) {
+                        nextResumeAt = entry.resumeAt;
+                        paused = true;
+                    }
+                    continue;
+                }
+
+                double ratio = entry.supplier.getFillRatio();
+                if (ratio < urgentRatio) {
+                    urgent = entry;
+                    urgentRatio = ratio;
+                }
+            }
+
+            if (urgent != null) {
+                this.pending.remove(urgent);
+                urgent.queued = false;
+                urgent.loading = true;
+                return urgent;
+            }
+
+            if (paused) {
+                this.loadPending.awaitNanos(nextResumeAt - now);
+            } else {
+                this.loadPending.await();
+            }
+            return null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 执行一次生产者的数据加载，加载完成后，如果加载期间再次触发了加载，则重新排队
+     */
+    private void load(LoadEntry entry) {
+        AsyncLoadBufferedSupplier<?> supplier = entry.supplier;
+
+        // 先消费许可再加载，加载期间触发的加载会在本次加载完成后重新排队
+        entry.permitted.set(false);
+        long pauseNanos = 0;
+        try {
+            if (supplier.isRunning()) {
+                pauseNanos = supplier.executeLoad();
+            }
+        } catch (Throwable e) {
+            log.error("数据加载调度异常：{}", supplier.getName(), e);
+        }
+
+        // 熔断打开时读操作不会再触发加载，保留许可，保证熔断结束后会进行探测加载
+        if (supplier.isRunning() && supplier.isLoadPermitRetained()) {
+            entry.permitted.set(true);
+        }
+
+        this.lock.lock();
+        try {
+            entry.loading = false;
+            entry.resumeAt = System.nanoTime() + pauseNanos;
+            enqueue(entry);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+
+    /**
+     * 生产者在调度器中的加载状态
+     */
+    static class LoadEntry {
+
+        private final AsyncLoadBufferedSupplier<?> supplier;
+
+        /**
+         * 是否有加载许可
+         */
+        private final AtomicBoolean permitted;
+
+        /**
+         * 是否在等待队列中，需要持有调度器的锁访问
+         */
+        private boolean queued;
+
+        /**
+         * 是否正在加载，需要持有调度器的锁访问
+         */
+        private boolean loading;
+
+        /**
+         * 是否已从调度器中移除，需要持有调度器的锁访问
+         */
+        private boolean cancelled;
+
+        /**
+         * 加载失败退避或熔断时，下次可以加载的时间，需要持有调度器的锁访问
+         */
+        private long resumeAt;
+
+        LoadEntry(AsyncLoadBufferedSupplier<?> supplier) {
+            this.supplier = supplier;
+            this.permitted = new AtomicBoolean(false);
+            this.resumeAt = System.nanoTime();
+        }
+
+    }
+
+}
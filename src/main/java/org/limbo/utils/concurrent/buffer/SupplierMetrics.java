@@ -0,0 +1,143 @@
+package org.limbo.utils.concurrent.buffer;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带缓存生产者的指标快照，通过 {@link BufferedSupplier#getMetrics()} 获取。
+ * 除读取速率与剩余数据量外，其他指标都是从开启统计以来的累计值。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Getter
+public final class SupplierMetrics {
+
+    /**
+     * 数据加载耗时分布的桶上界，微秒。第 i 个桶统计耗时小于 <code>LOAD_LATENCY_BUCKET_BOUNDS_MICROS[i]</code> 的加载，
+     * 最后一个桶统计耗时不小于 1s 的加载。
+     */
+    private static final long[] LOAD_LATENCY_BUCKET_BOUNDS_MICROS = {100, 1_000, 10_000, 100_000, 1_000_000};
+
+    /**
+     * 数据加载耗时分布的桶数量
+     */
+    static final int LOAD_LATENCY_BUCKETS = LOAD_LATENCY_BUCKET_BOUNDS_MICROS.length + 1;
+
+    /**
+     * 成功读取的数据量
+     */
+    private final long gets;
+
+    /**
+     * 读取速率，距离上次获取快照期间平均每秒读取的数据量
+     */
+    private final double getsPerSecond;
+
+    /**
+     * 读操作等待数据发布的总耗时，纳秒
+     */
+    private final long blockedNanos;
+
+    /**
+     * 读操作申请读取超时的次数
+     */
+    private final long acquireTimeouts;
+
+    /**
+     * 数据加载成功的次数
+     */
+    private final long loads;
+
+    /**
+     * 数据加载失败的次数
+     */
+    private final long loadFailures;
+
+    /**
+     * 加载的数据总量
+     */
+    private final long loadedItems;
+
+    /**
+     * 数据加载耗时分布，包括加载失败的耗时，长度为 <code>LOAD_LATENCY_BUCKET_BOUNDS_MICROS.length + 1</code>
+     */
+    private final long[] loadLatencyHistogram;
+
+    /**
+     * 获取快照时缓存中剩余的数据量
+     */
+    private final long remainingSize;
+
+
+    SupplierMetrics(long gets, double getsPerSecond, long blockedNanos, long acquireTimeouts,
+                    long loads, long loadFailures, long loadedItems, long[] loadLatencyHistogram, long remainingSize) {
+        this.gets = gets;
+        this.getsPerSecond = getsPerSecond;
+        this.blockedNanos = blockedNanos;
+        this.acquireTimeouts = acquireTimeouts;
+        this.loads = loads;
+        this.loadFailures = loadFailures;
+        this.loadedItems = loadedItems;
+        this.loadLatencyHistogram = loadLatencyHistogram;
+        this.remainingSize = remainingSize;
+    }
+
+
+    /**
+     * 数据加载耗时分布的桶上界，微秒，返回副本。第 i 个桶统计耗时小于第 i 个上界的加载，最后一个桶统计耗时不小于所有上界的加载。
+     */
+    public static long[] getLoadLatencyBucketBoundsMicros() {
+        return LOAD_LATENCY_BUCKET_BOUNDS_MICROS.clone();
+    }
+
+
+    /**
+     * 计算加载耗时所在的桶
+     *
+     * @param nanos 加载耗时，纳秒
+     */
+    static int loadLatencyBucketOf(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = 0;
+        while (bucket < LOAD_LATENCY_BUCKET_BOUNDS_MICROS.length && micros >= LOAD_LATENCY_BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+
+    /**
+     * 平均每次成功加载的数据量
+     */
+    public double getAverageLoadedItems() {
+        return this.loads == 0 ? 0 : (double) this.loadedItems / this.loads;
+    }
+
+
+    /**
+     * 数据加载耗时分布，返回副本
+     */
+    public long[] getLoadLatencyHistogram() {
+        return this.loadLatencyHistogram.clone();
+    }
+
+
+    @Override
+    public String toString() {
+        return "SupplierMetrics{" +
+                "gets=" + gets +
+                ", getsPerSecond=" + getsPerSecond +
+                ", blockedNanos=" + blockedNanos +
+                ", acquireTimeouts=" + acquireTimeouts +
+                ", loads=" + loads +
+                ", loadFailures=" + loadFailures +
+                ", loadedItems=" + loadedItems +
+                ", loadLatencyHistogram=" + Arrays.toString(loadLatencyHistogram) +
+                ", remainingSize=" + remainingSize +
+                '}';
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.limbo.utils.concurrent.buffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带缓存生产者的指标统计，计数使用 {@link LongAdder}，并发读时不会成为竞争热点。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+class SupplierMetricsRecorder {
+
+    /**
+     * 成功读取的数据量
+     */
+    private final LongAdder gets = new LongAdder();
+
+    /**
+     * 读操作等待数据发布的总耗时，纳秒
+     */
+    private final LongAdder blockedNanos = new LongAdder();
+
+    /**
+     * 读操作申请读取超时的次数
+     */
+    private final LongAdder acquireTimeouts = new LongAdder();
+
+    /**
+     * 数据加载成功的次数
+     */
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * 数据加载失败的次数
+     */
+    private final LongAdder loadFailures = new LongAdder();
+
+    /**
+     * 加载的数据总量
+     */
+    private final LongAdder loadedItems = new LongAdder();
+
+    /**
+     * 数据加载耗时分布，包括加载失败的耗时，桶的上界见 {@link SupplierMetrics#getLoadLatencyBucketBoundsMicros()}，最后一个桶统计超过所有上界的加载
+     */
+    private final LongAdder[] loadLatencyBuckets;
+
+    /**
+     * 上次生成快照的时间与读取量，用于计算读取速率
+     */
+    private long lastSnapshotNanos;
+    private long lastSnapshotGets;
+
+
+    SupplierMetricsRecorder() {
+        this.loadLatencyBuckets = new LongAdder[SupplierMetrics.LOAD_LATENCY_BUCKETS];
+        for (int i = 0; i < this.loadLatencyBuckets.length; i++) {
+            this.loadLatencyBuckets[i] = new LongAdder();
+        }
+        this.lastSnapshotNanos = System.nanoTime();
+    }
+
+
+    void recordGets(long count) {
+        this.gets.add(count);
+    }
+
+
+    void recordBlocked(long nanos) {
+        this.blockedNanos.add(nanos);
+    }
+
+
+    void recordAcquireTimeout() {
+        this.acquireTimeouts.increment();
+    }
+
+
+    void recordLoadLatency(long nanos) {
+        this.loads.increment();
+        this.loadLatencyBuckets[SupplierMetrics.loadLatencyBucketOf(nanos)].increment();
+    }
+
+
+    void recordLoadFailure(long nanos) {
+        this.loadFailures.increment();
+        this.loadLatencyBuckets[SupplierMetrics.loadLatencyBucketOf(nanos)].increment();
+    }
+
+
+    void recordLoadedItems(long count) {
+        this.loadedItems.add(count);
+    }
+
+
+    /**
+     * 生成指标快照，读取速率按距离上次生成快照的时间计算
+     *
+     * @param remainingSize 当前缓存中剩余的数据量
+     */
+    synchronized SupplierMetrics snapshot(long remainingSize) {
+        long now = System.nanoTime();
+        long gets = this.gets.sum();
+        long elapsed = Math.max(1L, now - this.lastSnapshotNanos);
+        double getsPerSecond = (double) (gets - this.lastSnapshotGets) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        this.lastSnapshotNanos = now;
+        this.lastSnapshotGets = gets;
+
+        long[] latencyHistogram = new long[this.loadLatencyBuckets.length];
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            latencyHistogram[i] = this.loadLatencyBuckets[i].sum();
+        }
+
+        return new SupplierMetrics(gets, getsPerSecond, this.blockedNanos.sum(), this.acquireTimeouts.sum(),
+                this.loads.sum(), this.loadFailures.sum(), this.loadedItems.sum(), latencyHistogram, remainingSize);
+    }
+
+}
@@ -0,0 +1,334 @@
+package org.limbo.utils.concurrent.buffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程本地预取的带缓存生产者，包装任意 {@link BufferedSupplier}。
+ * <br/>
+ * 每个线程通过 {@link BufferedSupplier#get(int)} 一次批量取出 chunkSize 个元素，缓存在线程本地数组中，
+ * 之后的读取直接从本地数组中取出，没有原子操作，也不访问被包装生产者的共享状态。适用于ID分配等不要求全局有序的场景。
+ * <br/>
+ * 关闭生产者时，各个线程本地未读取的元素会被丢弃，不会归还给被包装的生产者，重新启动后不会再读取到这些元素；
+ * 优雅关闭时也只能取出被包装生产者中剩余的数据。线程本地缓存只能由所属线程访问，各个线程下次读取时才会丢弃并记录丢弃的元素数量。
+ * 线程本地缓存的元素不计入 {@link #getRemainingSize()}。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Slf4j
+public class ThreadLocalPrefetchSupplier<T> extends BufferedSupplier<T> {
+
+    /**
+     * 默认每次预取的元素数量
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    /**
+     * 被包装的生产者
+     */
+    private final BufferedSupplier<T> delegate;
+
+    /**
+     * 每次预取的元素数量
+     */
+    private final int chunkSize;
+
+    /**
+     * 线程本地缓存
+     */
+    private final ThreadLocal<Chunk> chunks;
+
+    /**
+     * 缓存代数，每次关闭生产者时递增，代数不同的线程本地缓存将被丢弃
+     */
+    private volatile int generation;
+
+
+    /**
+     * @param delegate 被包装的生产者，启动、关闭此生产者时会启动、关闭被包装的生产者
+     */
+    public ThreadLocalPrefetchSupplier(BufferedSupplier<T> delegate) {
+        this(delegate, DEFAULT_CHUNK_SIZE);
+    }
+
+
+    /**
+     * @param delegate 被包装的生产者，启动、关闭此生产者时会启动、关闭被包装的生产者
+     * @param chunkSize 每次预取的元素数量
+     */
+    public ThreadLocalPrefetchSupplier(BufferedSupplier<T> delegate, int chunkSize) {
+        super(Objects.requireNonNull(delegate).getBufferSize(), false);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        this.delegate = delegate;
+        this.chunkSize = chunkSize;
+        this.chunks = ThreadLocal.withInitial(() -> new Chunk(chunkSize));
+        this.generation = 0;
+    }
+
+
+    /**
+     * 被包装的生产者
+     */
+    public BufferedSupplier<T> getDelegate() {
+        return this.delegate;
+    }
+
+
+    /**
+     * 优先从线程本地缓存中读取，本地缓存读取完时，从被包装的生产者批量预取。
+     * 读取失败时，{@link #onGetError(Throwable)} 返回的结果作为读取结果。
+     */
+    @Override
+    public T get() {
+        // 快速路径，只有一次volatile读，没有原子操作
+        Chunk chunk = this.chunks.get();
+        if (chunk.generation == this.generation && chunk.position < chunk.size) {
+            return chunk.take();
+        }
+
+        if (!isRunning()) {
+            discardStale(chunk);
+            return onGetError(new IllegalStateException("此生产者已经停止：" + getName()));
+        }
+
+        // 预取前读取缓存代数，预取期间生产者被关闭时，预取到的元素属于关闭前的代数，之后会被丢弃
+        int generation = this.generation;
+        discardStale(chunk);
+
+        // 预取下一批，被包装的生产者已等待过数据发布，没有预取到元素时直接失败，不再等待
+        List<T> values = this.delegate.get(this.chunkSize);
+        if (values.isEmpty()) {
+            return onGetError(new IllegalStateException("预取数据失败：" + getName()));
+        }
+
+        chunk.fill(values, generation);
+        return chunk.take();
+    }
+
+
+    /**
+     * 批量获取多个元素。先取出线程本地缓存中的元素，不足时从被包装的生产者批量读取，不会预取。
+     *
+     * @param n 需要获取的元素数量
+     * @return 获取到的元素，读取失败时，元素数量可能少于请求的数量
+     */
+    @Override
+    public List<T> get(int n) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        if (!isRunning()) {
+            return super.get(n);
+        }
+
+        List<T> values = new ArrayList<>(n);
+        Chunk chunk = this.chunks.get();
+        if (chunk.generation == this.generation) {
+            while (values.size() < n && chunk.position < chunk.size) {
+                values.add(chunk.take());
+            }
+        } else {
+            discardStale(chunk);
+        }
+
+        if (values.size() < n) {
+            values.addAll(this.delegate.get(n - values.size()));
+        }
+        return values;
+    }
+
+
+    /**
+     * 异步获取一个元素。线程本地缓存中有元素时直接完成，否则由被包装的生产者异步读取。
+     */
+    @Override
+    public CompletableFuture<T> getAsync() {
+        Chunk chunk = this.chunks.get();
+        if (chunk.generation == this.generation && chunk.position < chunk.size) {
+            return CompletableFuture.completedFuture(chunk.take());
+        }
+        discardStale(chunk);
+        return isRunning() ? this.delegate.getAsync() : super.getAsync();
+    }
+
+
+    /**
+     * 丢弃线程本地缓存中未读取的元素。生产者关闭后，缓存代数变化，丢弃的元素不会再被读取，记录丢弃的数量
+     */
+    private void discardStale(Chunk chunk) {
+        boolean stale = chunk.generation != this.generation;
+        int discarded = chunk.discard();
+        if (stale && discarded > 0) {
+            log.warn("生产者已关闭，丢弃线程{}本地缓存中未读取的{}个元素：{}", Thread.currentThread().getName(), discarded, getName());
+        }
+    }
+
+
+    /**
+     * 被包装生产者的缓冲区大小，不包括线程本地缓存的元素。
+     */
+    @Override
+    public long getBufferSize() {
+        return this.delegate.getBufferSize();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 被包装生产者中剩余的数据量，不包括线程本地缓存的元素。
+     * @return
+     */
+    @Override
+    protected long getRemainingSize() {
+        return this.delegate.getRemainingSize();
+    }
+
+
+    /**
+     * 启动被包装的生产者
+     */
+    @Override
+    protected void onStart() {
+        this.delegate.start();
+    }
+
+
+    /**
+     * 丢弃所有线程本地缓存，并关闭被包装的生产者
+     */
+    @Override
+    protected void onShutdown() {
+        this.generation++;
+        this.delegate.shutdown();
+    }
+
+
+    /**
+     * 被包装的生产者停止加载数据
+     */
+    @Override
+    protected void stopLoading() {
+        super.stopLoading();
+        this.delegate.stopLoading();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isLoading() {
+        return this.delegate.isLoading();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isDrained() {
+        return this.delegate.isDrained();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 取出被包装生产者中未被读取的数据，不包括线程本地缓存的元素。
+     */
+    @Override
+    protected List<T> drainRemaining() {
+        return this.delegate.drainRemaining();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * 等待被包装的生产者终止。
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+
+
+    /**
+     * 被包装的生产者检测是否需要加载数据
+     */
+    @Override
+    protected void loadData() {
+        this.delegate.checkAndLoadData();
+    }
+
+
+    /**
+     * 线程本地缓存，只被所属线程访问
+     */
+    private class Chunk {
+
+        private final Object[] values;
+
+        /**
+         * 下一个读取的下标
+         */
+        private int position;
+
+        /**
+         * 缓存的元素数量
+         */
+        private int size;
+
+        /**
+         * 预取时的缓存代数
+         */
+        private int generation;
+
+        Chunk(int chunkSize) {
+            this.values = new Object[chunkSize];
+            this.generation = -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        T take() {
+            T value = (T) this.values[this.position];
+            this.values[this.position++] = null;
+            return value;
+        }
+
+        void fill(List<T> values, int generation) {
+            int size = Math.min(values.size(), this.values.length);
+            for (int i = 0; i < size; i++) {
+                this.values[i] = values.get(i);
+            }
+            this.position = 0;
+            this.size = size;
+            this.generation = generation;
+        }
+
+        /**
+         * 丢弃未读取的元素，释放引用
+         *
+         * @return 丢弃的元素数量
+         */
+        int discard() {
+            int discarded = this.size - this.position;
+            for (int i = this.position; i < this.size; i++) {
+                this.values[i] = null;
+            }
+            this.position = 0;
+            this.size = 0;
+            return discarded;
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.limbo.utils.concurrent.buffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程支持。工具包需要兼容Java 8编译，因此通过反射调用JDK 21的虚拟线程API，运行时不支持虚拟线程时返回false或null。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Slf4j
+final class VirtualThreads {
+
+    /**
+     * <code>Thread.ofVirtual()</code>
+     */
+    private static final Method OF_VIRTUAL;
+
+    /**
+     * <code>Thread.Builder#name(String, long)</code>
+     */
+    private static final Method BUILDER_NAME;
+
+    /**
+     * <code>Thread.Builder#factory()</code>
+     */
+    private static final Method BUILDER_FACTORY;
+
+    /**
+     * <code>Executors.newThreadPerTaskExecutor(ThreadFactory)</code>
+     */
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+            // JDK 19、20中虚拟线程是预览特性，未开启预览时调用会抛出异常
+            ofVirtual.invoke(null);
+        } catch (Throwable e) {
+            ofVirtual = null;
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+
+    private VirtualThreads() {
+    }
+
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+
+    /**
+     * 创建为每个任务启动一个虚拟线程的线程池
+     *
+     * @param namePrefix 虚拟线程名称前缀，线程名称为前缀加序号
+     * @return 线程池，不支持虚拟线程时返回null
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        if (!isSupported()) {
+            return null;
+        }
+
+        try {
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            log.warn("创建虚拟线程池失败", e);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020-2024 Limbo Team (https://github.com/limbo-world).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.limbo.utils.wechat;
+
+import org.apache.commons.lang3.StringUtils;
+import org.limbo.utils.wechat.cache.ResponseMetaInfo;
+import org.limbo.utils.wechat.request.WeChatRequest;
+import org.limbo.utils.wechat.response.WeChatResponse;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.TreeMap;
+
+/**
+ * 基于StAX的XML转换器，序列化与 {@link XmlDataConverter} 相同，反序列化时流式读取报文，不构建Document。
+ * <br/>
+ * 报文只被读取一次，按标签名在 {@link ResponseMetaInfo} 中查找字段并直接设置，未声明的标签整体跳过。
+ * 直接读取字符串，不再改写报文中的encoding声明、也不再转为字节数组。
+ * <br/>
+ * 禁用了DTD和外部实体，包含DOCTYPE声明的报文会直接解析失败，避免XXE攻击和实体膨胀攻击。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class StaxXmlDataConverter<REQ extends WeChatRequest<RES>, RES extends WeChatResponse> extends XmlDataConverter<REQ, RES> {
+
+    /**
+     * 配置完成后的XMLInputFactory创建reader是线程安全的，所有转换器共享
+     */
+    private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+
+    public StaxXmlDataConverter(Class<REQ> requestClass, Class<RES> responseClass) {
+        super(requestClass, responseClass);
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        // 合并相邻的文本与CDATA，一个标签的文本内容只产生一个事件
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    @Override
+    public RES deserialize(String data, RES response) {
+        if (StringUtils.isBlank(data)) {
+            return null;
+        }
+
+        TreeMap<String, ResponseMetaInfo.ResponseParamInfo> responseParamInfo = responseMetaInfo.getParamInfo();
+        XMLStreamReader reader = null;
+        try {
+            if (response == null) {
+                response = responseClass.newInstance();
+            }
+
+            reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(data));
+            // 跳到根节点
+            reader.nextTag();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    break;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                ResponseMetaInfo.ResponseParamInfo paramInfo = responseParamInfo.get(reader.getLocalName());
+                if (paramInfo == null) {
+                    skipElement(reader);
+                    continue;
+                }
+
+                String tagContent = readElementContent(reader);
+                if (String.class.equals(paramInfo.getField().getType())) {
+                    paramInfo.getCompiledSetter().accept(response, tagContent);
+                } else {
+                    paramInfo.getCompiledSetter().accept(response, conversionService.convert(tagContent, paramInfo.getField().getType()));
+                }
+            }
+
+            return response;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("解析Response XML 失败！" + data, e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("解析Response XML 到Response类失败！" + data, e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+    }
+
+
+    /**
+     * 读取当前标签的内容，读取完成后reader停在标签的结束事件上。
+     * 内容只有文本时返回规范化后的文本；包含子标签时，返回子标签的xml。
+     */
+    private String readElementContent(XMLStreamReader reader) throws XMLStreamException {
+        String text = null;
+        StringBuilder content = null;
+        while (true) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (content != null) {
+                        content.append(StringUtils.normalizeSpace(reader.getText()));
+                    } else if (text == null) {
+                        text = reader.getText();
+                    } else {
+                        text = text + reader.getText();
+                    }
+                    break;
+
+                case XMLStreamConstants.START_ELEMENT:
+                    if (content == null) {
+                        content = new StringBuilder();
+                        if (text != null) {
+                            content.append(StringUtils.normalizeSpace(text));
+                        }
+                    }
+                    String name = reader.getLocalName();
+                    content.append("<").append(name).append(">")
+                            .append(readElementContent(reader))
+                            .append("</").append(name).append(">");
+                    break;
+
+                case XMLStreamConstants.END_ELEMENT:
+                    if (content != null) {
+                        return content.toString();
+                    }
+                    return text == null ? "" : StringUtils.normalizeSpace(text);
+
+                case XMLStreamConstants.END_DOCUMENT:
+                    throw new XMLStreamException("XML未正常结束");
+
+                default:
+                    break;
+            }
+        }
+    }
+
+
+    /**
+     * 跳过当前标签及其所有子标签，跳过后reader停在标签的结束事件上
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("XML未正常结束");
+            }
+        }
+    }
+
+}
@@ -46,13 +46,13 @@ public class XmlDataConverter<REQ extends WeChatRequest<RES>, RES extends WeChat
 
     private Class<REQ> requestClass;
 
-    private Class<RES> responseClass;
+    protected Class<RES> responseClass;
 
     private RequestMetaInfo requestMetaInfo;
 
-    private ResponseMetaInfo responseMetaInfo;
+    protected ResponseMetaInfo responseMetaInfo;
 
-    private ConversionService conversionService;
+    protected ConversionService conversionService;
 
     public XmlDataConverter(Class<REQ> requestClass, Class<RES> responseClass) {
         this.requestClass = requestClass;
@@ -74,12 +74,12 @@ public class XmlDataConverter<REQ extends WeChatRequest<RES>, RES extends WeChat
         paramInfos.forEach((fieldName, paramInfo) -> {
             String fieldValue = null;
             try {
-                Object obj = paramInfo.getGetter().invoke(request);
+                Object obj = paramInfo.getCompiledGetter().apply(request);
                 if (obj != null) {
                     fieldValue = String.valueOf(obj);
                 }
-            } catch (ReflectiveOperationException e) {
-                log.error("反射获取Xml字段报错！", e);
+            } catch (RuntimeException e) {
+                log.error("获取Xml字段报错！", e);
             }
 
             if (fieldValue == null) {
@@ -136,9 +136,9 @@ public class XmlDataConverter<REQ extends WeChatRequest<RES>, RES extends WeChat
                 }
 
                 if (String.class.equals(paramInfo.getField().getType())) {
-                    paramInfo.getSetter().invoke(response, tagContent);
+                    paramInfo.getCompiledSetter().accept(response, tagContent);
                 } else {
-                    paramInfo.getSetter().invoke(response, conversionService.convert(tagContent, paramInfo.getField().getType()));
+                    paramInfo.getCompiledSetter().accept(response, conversionService.convert(tagContent, paramInfo.getField().getType()));
                 }
             }
 
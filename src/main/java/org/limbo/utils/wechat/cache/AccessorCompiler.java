@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-2024 Limbo Team (https://github.com/limbo-world).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.limbo.utils.wechat.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 将getter、setter方法编译为 {@link Function}、{@link BiConsumer}，避免每次调用都经过 {@link Method#invoke(Object, Object...)}。
+ * <br/>
+ * 优先通过 {@link LambdaMetafactory} 生成与手写lambda等价的实现类，可以被JIT内联；
+ * 方法所在的类不是public、或对当前类加载器不可见时，退化为 {@link MethodHandle} 调用。
+ *
+ * @author Brozen
+ * @since 2026-10-18
+ */
+@Slf4j
+class AccessorCompiler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 将getter方法编译为Function，参数为getter所属的对象，返回值为getter的返回值，基本类型会被装箱。
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> compileGetter(Method getter) {
+        try {
+            MethodHandle handle = unreflect(getter);
+            if (isLambdaCompatible(getter)) {
+                CallSite site = LambdaMetafactory.metafactory(
+                        LOOKUP, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle, handle.type().wrap()
+                );
+                return (Function<Object, Object>) site.getTarget().invoke();
+            }
+
+            MethodHandle generic = handle.asType(MethodType.genericMethodType(1));
+            return target -> {
+                try {
+                    return generic.invokeExact(target);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException("调用getter失败：" + getter, e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new IllegalStateException("编译getter失败：" + getter, e);
+        }
+    }
+
+    /**
+     * 将setter方法编译为BiConsumer，第一个参数为setter所属的对象，第二个参数为设置的值，基本类型会被拆箱。
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> compileSetter(Method setter) {
+        try {
+            MethodHandle handle = unreflect(setter);
+            if (isLambdaCompatible(setter)) {
+                CallSite site = LambdaMetafactory.metafactory(
+                        LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle, handle.type().wrap().changeReturnType(void.class)
+                );
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            }
+
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, value) -> {
+                try {
+                    generic.invokeExact(target, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException("调用setter失败：" + setter, e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new IllegalStateException("编译setter失败：" + setter, e);
+        }
+    }
+
+
+    /**
+     * 获取方法的MethodHandle，方法所在的类不可访问时，先设置方法为可访问
+     */
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method);
+        }
+    }
+
+
+    /**
+     * 生成的lambda实现类与当前类在同一个类加载器中，只能直接调用public类的public方法，且方法所在的类需要对当前类加载器可见。
+     */
+    private static boolean isLambdaCompatible(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(declaringClass.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+
+        try {
+            return Class.forName(declaringClass.getName(), false, AccessorCompiler.class.getClassLoader()) == declaringClass;
+        } catch (ClassNotFoundException e) {
+            log.debug("{}对当前类加载器不可见，使用MethodHandle调用", declaringClass.getName());
+            return false;
+        }
+    }
+
+}
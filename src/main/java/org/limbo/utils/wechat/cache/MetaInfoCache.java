@@ -27,6 +27,8 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * 请求、响应类的元信息缓存。每个类只解析一次，字段的getter、setter在解析时编译为函数，序列化、反序列化时不再经过反射调用。
+ *
  * @author Brozen
  * @since 1.0
  */
@@ -68,6 +70,7 @@ public class MetaInfoCache {
                     RequestMetaInfo.RequestParamInfo requestParamInfo = new RequestMetaInfo.RequestParamInfo();
                     requestParamInfo.setField(field);
                     requestParamInfo.setGetter(getter);
+                    requestParamInfo.setCompiledGetter(AccessorCompiler.compileGetter(getter));
                     requestParamInfo.setWeChatApiField(weChatApiField);
                     paramInfo.add(requestParamInfo);
                 }
@@ -120,6 +123,7 @@ public class MetaInfoCache {
                     ResponseMetaInfo.ResponseParamInfo requestParamInfo = new ResponseMetaInfo.ResponseParamInfo();
                     requestParamInfo.setField(field);
                     requestParamInfo.setSetter(setter);
+                    requestParamInfo.setCompiledSetter(AccessorCompiler.compileSetter(setter));
                     requestParamInfo.setWeChatApiField(weChatApiField);
                     paramInfo.add(requestParamInfo);
                 }
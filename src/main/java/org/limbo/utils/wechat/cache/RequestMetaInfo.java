@@ -23,6 +23,7 @@ import org.limbo.utils.wechat.annotations.WeChatApiField;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.TreeMap;
+import java.util.function.Function;
 
 /**
  * @author Brozen
@@ -45,6 +46,11 @@ public class RequestMetaInfo {
 
         private Method getter;
 
+        /**
+         * 编译后的getter，参数为请求对象，返回字段值
+         */
+        private Function<Object, Object> compiledGetter;
+
         private WeChatApiField weChatApiField;
 
     }
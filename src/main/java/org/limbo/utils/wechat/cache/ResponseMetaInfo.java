@@ -22,6 +22,7 @@ import org.limbo.utils.wechat.annotations.WeChatApiField;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
 
 /**
  * @author Brozen
@@ -42,6 +43,11 @@ public class ResponseMetaInfo {
 
         private Method setter;
 
+        /**
+         * 编译后的setter，参数为响应对象、字段值
+         */
+        private BiConsumer<Object, Object> compiledSetter;
+
         private WeChatApiField weChatApiField;
 
     }
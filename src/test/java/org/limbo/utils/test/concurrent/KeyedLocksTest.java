@@ -0,0 +1,53 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.KeyedLocks;
+import org.limbo.utils.concurrent.Lockable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class KeyedLocksTest {
+
+    @Test
+    public void testKeyedLocks() throws InterruptedException {
+        KeyedLocks<String> locks = new KeyedLocks<>(6);
+        Assert.assertEquals(8, locks.getStripes());
+        Assert.assertSame(locks.getLock("order-1"), locks.getLock(new String("order-1")));
+
+        // 模拟16个订单的支付回调，每个订单的计数器只在持有该订单的锁时修改
+        Map<String, int[]> counters = new HashMap<>();
+        for (int i = 0; i < 16; i++) {
+            counters.put("order-" + i, new int[1]);
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 16000; j++) {
+                    String orderId = "order-" + (j % 16);
+                    locks.run(orderId, () -> counters.get(orderId)[0]++, Lockable.Mode.WRITE);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Map.Entry<String, int[]> entry : counters.entrySet()) {
+            int count = locks.invoke(entry.getKey(), () -> entry.getValue()[0], Lockable.Mode.READ);
+            Assert.assertEquals(8 * 1000, count);
+        }
+        System.out.println("每个订单回调次数: " + counters.get("order-0")[0]);
+    }
+
+}
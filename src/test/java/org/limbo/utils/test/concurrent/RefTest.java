@@ -0,0 +1,56 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.PaddedRef;
+import org.limbo.utils.concurrent.Ref;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class RefTest {
+
+    @Test
+    public void testUpdate() {
+        Ref<String> ref = new Ref<>("a");
+        Assert.assertEquals("a", ref.getAndSet("b"));
+        Assert.assertEquals("b", ref.getAndUpdate(value -> value + "c"));
+        Assert.assertEquals("bcd", ref.updateAndGet(value -> value + "d"));
+        Assert.assertEquals("bcd", ref.getAndAccumulate("e", String::concat));
+        Assert.assertEquals("bcdef", ref.accumulateAndGet("f", String::concat));
+
+        ref.lazySet(null);
+        Assert.assertNull(ref.get());
+        ref.setIfAbsent("g");
+        Assert.assertEquals("g", ref.get());
+        System.out.println(ref);
+    }
+
+    @Test
+    public void testPaddedRef() throws InterruptedException {
+        // 8个线程并发累加，更新不会丢失
+        Ref<Integer> ref = new PaddedRef<>(0);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    ref.accumulateAndGet(1, Integer::sum);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        System.out.println("累加结果: " + ref.get());
+        Assert.assertEquals(Integer.valueOf(80000), ref.get());
+        Assert.assertEquals(new Ref<>(80000), ref);
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.buffer.DefaultRefreshAheadSupplier;
+import org.limbo.utils.wechat.response.AccessTokenGetResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class RefreshAheadSupplierTest {
+
+    @Test
+    public void testRefreshAhead() throws InterruptedException {
+
+        // 模拟微信接口，每次返回新的凭证，有效期10秒；第二次获取凭证阻塞，直到测试放行
+        AtomicInteger loadTimes = new AtomicInteger(0);
+        CountDownLatch refreshEntered = new CountDownLatch(1);
+        CountDownLatch refreshReleased = new CountDownLatch(1);
+        DefaultRefreshAheadSupplier<AccessTokenGetResponse> tokenSupplier = new DefaultRefreshAheadSupplier<>(false, () -> {
+            int times = loadTimes.incrementAndGet();
+            if (times == 2) {
+                refreshEntered.countDown();
+                try {
+                    refreshReleased.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            AccessTokenGetResponse response = new AccessTokenGetResponse();
+            response.setAccessToken("token-" + times);
+            response.setExpiresIn(10000L);
+            System.out.println("触发模拟获取凭证: " + response.getAccessToken());
+            return response;
+        }, resp -> Duration.ofMillis(resp.getExpiresIn()));
+        // 加载100毫秒后提前刷新
+        tokenSupplier.setRefreshFactor(0.01f);
+        tokenSupplier.setMetricsEnabled(true);
+        tokenSupplier.start();
+
+        // 首次读取等待加载
+        Assert.assertEquals("token-1", tokenSupplier.get().getAccessToken());
+
+        // 到达刷新时间后读取，触发提前刷新，刷新期间仍返回当前的凭证
+        Thread.sleep(150);
+        Assert.assertEquals("token-1", tokenSupplier.get().getAccessToken());
+        Assert.assertTrue(refreshEntered.await(1, TimeUnit.SECONDS));
+
+        // 刷新期间8个线程并发读取，都读取到当前的凭证，并发触发的刷新合并为一次
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    tokens.add(tokenSupplier.get().getAccessToken());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(Collections.singleton("token-1"), tokens);
+
+        // 放行刷新，刷新完成后读取到新的凭证
+        refreshReleased.countDown();
+        String token = "token-1";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while ("token-1".equals(token) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            token = tokenSupplier.get().getAccessToken();
+        }
+        tokenSupplier.shutdown();
+        Assert.assertTrue(tokenSupplier.awaitTermination(1, TimeUnit.SECONDS));
+
+        // 刷新期间合并的加载许可在刷新完成后被跳过，不计入加载耗时
+        System.out.println("刷新后的凭证: " + token + "，获取凭证次数: " + loadTimes.get());
+        Assert.assertEquals("token-2", token);
+        Assert.assertEquals(2, loadTimes.get());
+        Assert.assertEquals(2, Arrays.stream(tokenSupplier.getMetrics().getLoadLatencyHistogram()).sum());
+    }
+
+
+    @Test
+    public void testRefreshFailed() {
+        DefaultRefreshAheadSupplier<String> ticketSupplier = new DefaultRefreshAheadSupplier<>(false, () -> {
+            throw new IllegalStateException("模拟微信接口异常");
+        }, Duration.ofHours(2));
+        ticketSupplier.start();
+
+        // 刷新失败时，等待刷新的读操作立即失败，不会等待到超时
+        long start = System.nanoTime();
+        try {
+            ticketSupplier.get();
+            Assert.fail("刷新失败时读操作应当失败");
+        } catch (IllegalStateException e) {
+            System.out.println("刷新失败: " + e.getCause().getMessage() + "，原因: " + e.getCause().getCause().getMessage());
+            Assert.assertEquals("模拟微信接口异常", e.getCause().getCause().getMessage());
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        }
+
+        ticketSupplier.shutdown();
+    }
+
+
+    @Test
+    public void testInvalidate() throws InterruptedException {
+        AtomicInteger loadTimes = new AtomicInteger(0);
+        DefaultRefreshAheadSupplier<String> ticketSupplier = new DefaultRefreshAheadSupplier<>(
+                true, () -> "ticket-" + loadTimes.incrementAndGet(), Duration.ofHours(2));
+        ticketSupplier.start();
+
+        String ticket = ticketSupplier.get();
+        Assert.assertEquals("ticket-1", ticket);
+        Assert.assertEquals("ticket-1", ticketSupplier.get());
+
+        // 凭证失效后重新获取，重复失效旧凭证不会再次刷新
+        ticketSupplier.invalidate(ticket);
+        Assert.assertEquals("ticket-2", ticketSupplier.get());
+        ticketSupplier.invalidate(ticket);
+        Assert.assertEquals("ticket-2", ticketSupplier.get());
+        Assert.assertEquals(2, loadTimes.get());
+
+        // 缓存的值不会被读取消费，优雅关闭不需要等待到超时
+        long start = System.nanoTime();
+        Assert.assertTrue(ticketSupplier.shutdownGracefully(Duration.ofSeconds(5)).isEmpty());
+        Assert.assertFalse(ticketSupplier.isRunning());
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+}
@@ -1,12 +1,44 @@
 package org.limbo.utils.test.concurrent;
 
+import com.lmax.disruptor.dsl.ProducerType;
+import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
+import org.limbo.utils.concurrent.buffer.DefaultLongRingBufferSupplier;
 import org.limbo.utils.concurrent.buffer.DefaultRingBufferSupplier;
+import org.limbo.utils.concurrent.buffer.LoadBackoff;
+import org.limbo.utils.concurrent.buffer.LoadCircuitBreaker;
+import org.limbo.utils.concurrent.buffer.LoadIdleStrategy;
+import org.limbo.utils.concurrent.buffer.RingBufferSupplier;
+import org.limbo.utils.concurrent.buffer.RingBufferSupplierBuilder;
+import org.limbo.utils.concurrent.buffer.SupplierLoadScheduler;
+import org.limbo.utils.concurrent.buffer.SupplierMetrics;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 /**
  * @author Brozen
@@ -55,6 +87,925 @@ public class RingBufferSupplierTest {
 
 
 
+    @Test
+    public void testBatchGet() throws InterruptedException {
+        for (RingBufferSupplier.ReadMode readMode : RingBufferSupplier.ReadMode.values()) {
+            testBatchGet(readMode);
+        }
+    }
+
+
+    private void testBatchGet(RingBufferSupplier.ReadMode readMode) throws InterruptedException {
+
+        // 初始化生产者，缓冲区大小16，每次批量加载9条数据
+        int bufferSize = 16;
+        int loadSize = (bufferSize >>> 1) + 1;
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                bufferSize, false, () -> idRepository.batchGetIds(loadSize, false));
+        idSupplier.setReadMode(readMode);
+        idSupplier.start();
+
+        // 启动4个线程，每个线程批量获取5次，每次100个，批量数量超过缓冲区大小时会分批读取
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 5; j++) {
+                    List<Long> batch = idSupplier.get(100);
+                    Assert.assertEquals(100, batch.size());
+                    ids.addAll(batch);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 批量取出已经发布的数据，不会等待加载
+        List<Long> drained = new ArrayList<>();
+        while (drained.size() < 100) {
+            if (idSupplier.drainTo(drained, 100 - drained.size()) == 0) {
+                LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+            }
+        }
+        ids.addAll(drained);
+        idSupplier.shutdown();
+
+        // 没有重复的ID
+        Assert.assertEquals(2100, ids.size());
+    }
+
+
+
+    /**
+     * 批量取出时添加到集合失败，未添加的ID留给之后的读操作，不会丢失
+     */
+    @Test
+    public void testDrainToBoundedCollection() {
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                16, true, () -> idRepository.batchGetIds(8, false));
+        idSupplier.start();
+
+        // 第一批8个ID一次性发布，读取第一个ID后，剩余7个都已发布
+        Assert.assertEquals(Long.valueOf(1L), idSupplier.get());
+
+        // 容量为3的队列，添加第4个ID时抛出异常
+        Queue<Long> bounded = new ArrayBlockingQueue<>(3);
+        try {
+            idSupplier.drainTo(bounded, 6);
+            Assert.fail("添加到已满的队列应当失败");
+        } catch (IllegalStateException e) {
+            System.out.println("添加到集合失败: " + e.getMessage());
+        }
+        Assert.assertEquals(Arrays.asList(2L, 3L, 4L), new ArrayList<>(bounded));
+
+        // 未添加的ID按顺序被之后的读操作读取
+        for (long id = 5; id <= 20; id++) {
+            Assert.assertEquals(Long.valueOf(id), idSupplier.get());
+        }
+
+        idSupplier.shutdown();
+    }
+
+
+
+    @Test
+    public void testPublishLargeBatch() {
+
+        // 初始化生产者，缓冲区大小16，每次批量加载100条数据，超过缓冲区大小，需要分批发布
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                16, true, () -> idRepository.batchGetIds(100, false));
+        idSupplier.start();
+
+        // 单线程读取，ID应当严格递增
+        long last = 0L;
+        for (int i = 0; i < 300; i++) {
+            long id = idSupplier.get();
+            Assert.assertEquals(last + 1, id);
+            last = id;
+        }
+
+        idSupplier.shutdown();
+    }
+
+
+
+    /**
+     * 突发读取下，从触发加载到加载线程开始加载数据的延迟
+     */
+    @Test
+    public void testRefillLatency() throws InterruptedException {
+        for (LoadIdleStrategy idleStrategy : LoadIdleStrategy.values()) {
+            Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+            AtomicLong triggeredAt = new AtomicLong(0L);
+            DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<List<Long>, Long>(
+                    1024, true, () -> idRepository.batchGetIds(256, false)) {
+
+                @Override
+                protected void loadData() {
+                    triggeredAt.compareAndSet(0L, System.nanoTime());
+                    super.loadData();
+                }
+
+                @Override
+                protected void doLoadData() {
+                    long triggered = triggeredAt.getAndSet(0L);
+                    if (triggered > 0) {
+                        latencies.add(System.nanoTime() - triggered);
+                    }
+                    super.doLoadData();
+                }
+            };
+            idSupplier.setLoadIdleStrategy(idleStrategy);
+            idSupplier.start();
+
+            // 4个线程突发读取，每轮读取500次后暂停20ms
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread thread = new Thread(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        for (int j = 0; j < 500; j++) {
+                            idSupplier.get();
+                        }
+                        LockSupport.parkNanos(Duration.ofMillis(20).toNanos());
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            idSupplier.shutdown();
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            sorted.sort(Long::compare);
+            Assert.assertFalse(idleStrategy + " 没有触发加载", sorted.isEmpty());
+            System.out.printf("%s 加载次数: %d, 唤醒延迟(us) p50: %d, p99: %d, max: %d%n", idleStrategy, sorted.size(),
+                    TimeUnit.NANOSECONDS.toMicros(sorted.get(sorted.size() / 2)),
+                    TimeUnit.NANOSECONDS.toMicros(sorted.get(sorted.size() * 99 / 100)),
+                    TimeUnit.NANOSECONDS.toMicros(sorted.get(sorted.size() - 1)));
+
+            // 加载线程被直接唤醒，中位延迟应远低于原来100ms的轮询间隔
+            Assert.assertTrue(idleStrategy + " 唤醒延迟过高", sorted.get(sorted.size() / 2) < TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+
+
+    @Test
+    public void testLongRingBufferSupplier() throws InterruptedException {
+
+        // 初始化生产者，缓冲区大小16，每次批量加载9条数据
+        int bufferSize = 16;
+        int loadSize = (bufferSize >>> 1) + 1;
+        DefaultLongRingBufferSupplier idSupplier = new DefaultLongRingBufferSupplier(
+                bufferSize, false, () -> idRepository.batchGetIdArray(loadSize));
+        idSupplier.start();
+
+        // 启动8个线程，每个线程获取1000次
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    ids.add(idSupplier.getAsLong());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 等待所有线程执行完成
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        idSupplier.shutdown();
+        System.out.println("生成ID数量: " + ids.size());
+        Assert.assertEquals(8000, ids.size());
+    }
+
+
+
+    /**
+     * 读操作等待数据发布时加载熔断，放弃的读索引上之后发布的ID留给其他读操作，不会丢失
+     */
+    @Test
+    public void testLongSupplierAbandonOnCircuitOpen() throws InterruptedException {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        DefaultLongRingBufferSupplier idSupplier = new DefaultLongRingBufferSupplier(16, false, () -> {
+            if (failing.get()) {
+                LockSupport.parkNanos(Duration.ofMillis(200).toNanos());
+                throw new IllegalStateException("模拟DB不可用");
+            }
+            return idRepository.batchGetIdArray(9);
+        });
+        idSupplier.setLoadCircuitBreaker(new LoadCircuitBreaker(1, Duration.ofMillis(300)));
+        idSupplier.start();
+
+        // 3个读操作在加载失败之前开始等待，熔断打开后立即失败
+        AtomicInteger failures = new AtomicInteger(0);
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    idSupplier.getAsLong();
+                } catch (IllegalStateException e) {
+                    failures.incrementAndGet();
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join(2000);
+        }
+        Assert.assertEquals(3, failures.get());
+
+        // 恢复后熔断结束时探测加载，被放弃的读索引上的ID在下一批数据发布前留给其他读操作，
+        // 读操作可能先读完第一批剩余的6个ID，因此读取到第二批时，1到12的ID应当全部被读取
+        failing.set(false);
+        Set<Long> ids = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (ids.size() < 12 && System.nanoTime() < deadline) {
+            try {
+                ids.add(idSupplier.getAsLong());
+            } catch (IllegalStateException e) {
+                Thread.sleep(20);
+            }
+        }
+        System.out.println("熔断恢复后读取ID: " + ids);
+        Assert.assertEquals(LongStream.rangeClosed(1, 12).boxed().collect(Collectors.toSet()), ids);
+
+        idSupplier.shutdown();
+    }
+
+
+
+    /**
+     * 读操作等待数据发布时被中断，放弃的读索引上之后发布的ID留给其他读操作，不会丢失
+     */
+    @Test
+    public void testLongSupplierAbandonOnInterrupt() throws InterruptedException {
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        DefaultLongRingBufferSupplier idSupplier = new DefaultLongRingBufferSupplier(16, false, () -> {
+            try {
+                loadLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return idRepository.batchGetIdArray(9);
+        });
+        idSupplier.start();
+
+        // 读操作等待第一次加载时被中断
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                idSupplier.getAsLong();
+            } catch (IllegalStateException e) {
+                error.set(e);
+            }
+        });
+        reader.start();
+        while (reader.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        reader.interrupt();
+        reader.join(1000);
+        Assert.assertTrue(error.get().getCause() instanceof InterruptedException);
+
+        // 加载完成后，被中断的读操作申请的ID在下一批数据发布前留给其他读操作，读取到第二批时，1到18的ID应当全部被读取
+        loadLatch.countDown();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 18; i++) {
+            ids.add(idSupplier.getAsLong());
+        }
+        System.out.println("中断后读取ID: " + ids);
+        Assert.assertEquals(LongStream.rangeClosed(1, 18).boxed().collect(Collectors.toSet()), ids);
+
+        idSupplier.shutdown();
+    }
+
+
+
+    /**
+     * 自适应加载，读取速度超过单次加载量时，单次加载量会增大
+     */
+    @Test
+    public void testAdaptiveLoad() throws InterruptedException {
+
+        // 缓冲区大小1024，基础加载量64，每次加载耗时约2ms
+        int bufferSize = 1024;
+        Queue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                bufferSize, false, (int size) -> {
+                    batchSizes.add(size);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+                    return idRepository.batchGetIds(size, false);
+                });
+        idSupplier.setLoadBatchSize(64);
+        idSupplier.setAdaptive(true);
+        idSupplier.start();
+
+        // 启动4个线程，每个线程获取5000次
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 5000; j++) {
+                    ids.add(idSupplier.get());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 等待所有线程执行完成
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        idSupplier.shutdown();
+        int maxBatchSize = batchSizes.stream().mapToInt(Integer::intValue).max().orElse(0);
+        System.out.println("加载次数: " + batchSizes.size() + "，最大单次加载量: " + maxBatchSize);
+        Assert.assertEquals(20000, ids.size());
+        Assert.assertTrue(maxBatchSize > 64);
+    }
+
+
+
+    /**
+     * 消费速率远超加载速度时，单次加载量不超过触发加载时缓冲区的空闲容量，加载线程不会等待读操作释放槽位
+     */
+    @Test
+    public void testAdaptiveLoadHighRate() throws InterruptedException {
+
+        // 缓冲区大小64，基础加载量8，默认加载因子0.75，触发加载时至少有16个空闲槽位
+        int bufferSize = 64;
+        int freeSize = bufferSize - (int) (bufferSize * 0.75f);
+        Queue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                bufferSize, false, (int size) -> {
+                    batchSizes.add(size);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    return idRepository.batchGetIds(size, false);
+                });
+        idSupplier.setLoadBatchSize(8);
+        idSupplier.setAdaptive(true);
+        idSupplier.start();
+
+        // 启动4个线程，每个线程获取2000次，一次加载期间预计被消费的数据量远超缓冲区大小
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    ids.add(idSupplier.get());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        idSupplier.shutdown();
+        int maxBatchSize = batchSizes.stream().mapToInt(Integer::intValue).max().orElse(0);
+        System.out.println("加载次数: " + batchSizes.size() + "，最大单次加载量: " + maxBatchSize);
+        Assert.assertEquals(8000, ids.size());
+        Assert.assertTrue(maxBatchSize > 8);
+        Assert.assertTrue(maxBatchSize <= freeSize);
+    }
+
+
+
+    @Test
+    public void testMetrics() throws InterruptedException {
+
+        // 初始化生产者，缓冲区大小16，每次批量加载9条数据
+        int bufferSize = 16;
+        int loadSize = (bufferSize >>> 1) + 1;
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                bufferSize, false, () -> idRepository.batchGetIds(loadSize, false));
+        idSupplier.setMetricsEnabled(true);
+        idSupplier.start();
+
+        // 启动4个线程，每个线程获取1000次
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    idSupplier.get();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 等待所有线程执行完成
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        SupplierMetrics metrics = idSupplier.getMetrics();
+        idSupplier.shutdown();
+        System.out.println(metrics);
+        Assert.assertEquals(4000, metrics.getGets());
+        Assert.assertEquals(0, metrics.getAcquireTimeouts());
+        Assert.assertTrue(metrics.getLoadedItems() >= 4000);
+        Assert.assertEquals(metrics.getLoads() + metrics.getLoadFailures(), Arrays.stream(metrics.getLoadLatencyHistogram()).sum());
+        Assert.assertEquals(SupplierMetrics.getLoadLatencyBucketBoundsMicros().length + 1, metrics.getLoadLatencyHistogram().length);
+    }
+
+
+
+    /**
+     * 非阻塞读与限时读，加载耗时200ms
+     */
+    @Test
+    public void testTryGetAndTimedGet() throws InterruptedException, TimeoutException {
+        int bufferSize = 16;
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                bufferSize, false, () -> {
+                    // 触发加载时会唤醒加载线程，不能用 LockSupport 模拟加载耗时
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return idRepository.batchGetIds(bufferSize >>> 1);
+                });
+        idSupplier.start();
+
+        // 缓存中没有数据时立即返回
+        long start = System.nanoTime();
+        Assert.assertFalse(idSupplier.tryGet().isPresent());
+        System.out.println("tryGet耗时(us): " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+
+        // 加载完成前超时
+        try {
+            idSupplier.get(10, TimeUnit.MILLISECONDS);
+            Assert.fail("应当超时");
+        } catch (TimeoutException e) {
+            System.out.println("限时读超时: " + e.getMessage());
+        }
+
+        // 加载完成后读取成功
+        Long id = idSupplier.get(1, TimeUnit.SECONDS);
+        System.out.println("限时读取ID: " + id);
+        Assert.assertNotNull(id);
+
+        // 超时放弃的读索引上发布的数据不会丢失，第一批加载的ID都能读取到
+        Set<Long> ids = new HashSet<>();
+        ids.add(id);
+        for (int i = 1; i < bufferSize >>> 1; i++) {
+            Optional<Long> value = idSupplier.tryGet();
+            Assert.assertTrue(value.isPresent());
+            ids.add(value.get());
+        }
+        System.out.println("第一批读取的ID: " + ids);
+        for (long expected = 1; expected <= bufferSize >>> 1; expected++) {
+            Assert.assertTrue(ids.contains(expected));
+        }
+
+        idSupplier.shutdown();
+    }
+
+
+
+    /**
+     * 异步读，数据发布后由执行器完成Future
+     */
+    @Test
+    public void testGetAsync() throws Exception {
+        int bufferSize = 16;
+        int loadSize = (bufferSize >>> 1) + 1;
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                bufferSize, false, () -> {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return idRepository.batchGetIds(loadSize, false);
+                });
+        idSupplier.start();
+
+        // 一次发起100个异步读，调用线程不会阻塞
+        long start = System.nanoTime();
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(idSupplier.getAsync());
+        }
+        System.out.println("发起异步读耗时(us): " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (CompletableFuture<Long> future : futures) {
+            ids.add(future.get(5, TimeUnit.SECONDS));
+        }
+        System.out.println("异步读取ID数量: " + ids.size());
+        Assert.assertEquals(100, ids.size());
+
+        // 停止生产者后，等待中的异步读以异常完成
+        CompletableFuture<Long> pending = null;
+        for (int i = 0; i < 100 && (pending == null || pending.isDone()); i++) {
+            pending = idSupplier.getAsync();
+        }
+        idSupplier.shutdown();
+        Assert.assertTrue(pending.isCompletedExceptionally());
+    }
+
+
+    /**
+     * 异步读在加载线程取出数据后被取消，数据留给之后的读操作，不会丢失
+     */
+    @Test
+    public void testGetAsyncCancelled() throws Exception {
+        int bufferSize = 16;
+        int loadSize = (bufferSize >>> 1) + 1;
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                bufferSize, false, () -> {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return idRepository.batchGetIds(loadSize, false);
+                });
+
+        // 完成Future之前，调用方恰好取消了Future
+        AtomicReference<CompletableFuture<Long>> cancelled = new AtomicReference<>();
+        AtomicReference<Thread> completingThread = new AtomicReference<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        idSupplier.setFutureExecutor(command -> {
+            completingThread.set(Thread.currentThread());
+            cancelled.get().cancel(false);
+            command.run();
+            completed.countDown();
+        });
+        idSupplier.start();
+
+        // 等待完成Future的任务执行完，被取消的Future上的数据放回缓存后再读取
+        cancelled.set(idSupplier.getAsync());
+        Assert.assertTrue(completed.await(2, TimeUnit.SECONDS));
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < loadSize; i++) {
+            ids.add(idSupplier.get());
+        }
+        idSupplier.shutdown();
+
+        System.out.println("取消后读取的ID: " + ids);
+        Assert.assertTrue(cancelled.get().isCancelled());
+        Assert.assertNotSame(Thread.currentThread(), completingThread.get());
+        for (long expected = 1; expected <= loadSize; expected++) {
+            Assert.assertTrue(ids.contains(expected));
+        }
+    }
+
+
+
+    /**
+     * 多个加载任务并行加载，加载耗时20ms
+     */
+    @Test
+    public void testParallelLoaders() throws InterruptedException {
+        AtomicInteger loading = new AtomicInteger(0);
+        AtomicInteger maxLoading = new AtomicInteger(0);
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = RingBufferSupplierBuilder
+                .<List<Long>, Long>newBatchBuilder(size -> {
+                    maxLoading.accumulateAndGet(loading.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        loading.decrementAndGet();
+                    }
+                    return idRepository.batchGetIds(size, false);
+                })
+                .name("parallel")
+                .bufferSize(256)
+                .producerType(ProducerType.MULTI)
+                .waitStrategy(RingBufferSupplierBuilder.ReadWaitStrategy.SLEEPING)
+                .loaderParallelism(4)
+                .build();
+        idSupplier.setLoadBatchSize(32);
+        idSupplier.start();
+
+        // 启动4个线程，每个线程获取500次
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    ids.add(idSupplier.get());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 等待所有线程执行完成
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        idSupplier.shutdown();
+        System.out.println("生成ID数量: " + ids.size() + "，最大并行加载数: " + maxLoading.get());
+        Assert.assertEquals(2000, ids.size());
+        Assert.assertTrue(maxLoading.get() > 1);
+
+        // 单生产者不支持多个加载任务
+        try {
+            RingBufferSupplierBuilder.newBuilder(() -> idRepository.batchGetIds(1)).loaderParallelism(2).build();
+            Assert.fail("应当校验生产者类型");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+
+        // 直接设置加载任务数量时，启动时校验缓冲区是否支持并发写入
+        DefaultRingBufferSupplier<List<Long>, Long> singleProducer = new DefaultRingBufferSupplier<>(
+                16, false, () -> idRepository.batchGetIds(9, false));
+        singleProducer.setLoaderParallelism(2);
+        try {
+            singleProducer.start();
+            Assert.fail("单生产者的缓冲区应当拒绝并行加载");
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+        }
+        Assert.assertFalse(singleProducer.isRunning());
+
+        DefaultLongRingBufferSupplier longSupplier = new DefaultLongRingBufferSupplier(
+                16, false, () -> idRepository.batchGetIdArray(9));
+        longSupplier.setLoaderParallelism(2);
+        try {
+            longSupplier.start();
+            Assert.fail("long缓冲区是单生产者，应当拒绝并行加载");
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+        }
+        Assert.assertFalse(longSupplier.isRunning());
+    }
+
+
+
+    /**
+     * 加载失败退避与熔断，熔断期间缓存为空时读操作立即失败，熔断结束后探测加载成功则恢复
+     */
+    @Test
+    public void testLoadCircuitBreaker() throws InterruptedException {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        AtomicInteger loadTimes = new AtomicInteger(0);
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                16, false, () -> {
+                    loadTimes.incrementAndGet();
+                    if (failing.get()) {
+                        throw new IllegalStateException("模拟DB不可用");
+                    }
+                    return idRepository.batchGetIds(9, false);
+                });
+        idSupplier.setLoadBackoff(LoadBackoff.exponential(Duration.ofMillis(10), Duration.ofMillis(50), 0));
+        idSupplier.setLoadCircuitBreaker(new LoadCircuitBreaker(3, Duration.ofMillis(300)));
+        idSupplier.setMetricsEnabled(true);
+        idSupplier.start();
+
+        // 连续失败3次后熔断，读操作立即失败
+        boolean failFast = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!failFast && System.nanoTime() < deadline) {
+            try {
+                idSupplier.get(20, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 熔断前等待超时
+            } catch (IllegalStateException e) {
+                System.out.println("读操作立即失败: " + e.getCause().getMessage());
+                failFast = true;
+            }
+        }
+        Assert.assertTrue(failFast);
+        Assert.assertEquals(LoadCircuitBreaker.State.OPEN, idSupplier.getLoadCircuitBreaker().getState());
+        Assert.assertEquals(3, loadTimes.get());
+
+        // 熔断期间不再加载，失败的加载计入加载耗时分布
+        Thread.sleep(100);
+        Assert.assertEquals(3, loadTimes.get());
+        SupplierMetrics metrics = idSupplier.getMetrics();
+        Assert.assertEquals(3, metrics.getLoadFailures());
+        Assert.assertEquals(3, Arrays.stream(metrics.getLoadLatencyHistogram()).sum());
+
+        // 恢复后，熔断结束时探测加载成功
+        failing.set(false);
+        Long id = null;
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (id == null && System.nanoTime() < deadline) {
+            try {
+                id = idSupplier.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | IllegalStateException e) {
+                Thread.sleep(20);
+            }
+        }
+        System.out.println("恢复后读取ID: " + id + "，加载次数: " + loadTimes.get());
+        Assert.assertNotNull(id);
+        Assert.assertEquals(LoadCircuitBreaker.State.CLOSED, idSupplier.getLoadCircuitBreaker().getState());
+
+        idSupplier.shutdown();
+    }
+
+
+    @Test
+    public void testBlockedReaderOnCircuitOpen() throws Exception {
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(
+                16, false, () -> {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("模拟DB不可用");
+                });
+        idSupplier.setLoadCircuitBreaker(new LoadCircuitBreaker(1, Duration.ofSeconds(10)));
+        idSupplier.start();
+
+        // 读操作在加载失败之前开始等待数据发布，熔断打开后被唤醒并立即失败
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                idSupplier.get();
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        reader.start();
+        CompletableFuture<Long> future = idSupplier.getAsync();
+
+        reader.join(2000);
+        Assert.assertFalse(reader.isAlive());
+        Assert.assertEquals(LoadCircuitBreaker.State.OPEN, idSupplier.getLoadCircuitBreaker().getState());
+        System.out.println("熔断后读操作失败: " + error.get().getCause().getMessage());
+        Assert.assertTrue(error.get().getCause().getMessage().startsWith("数据加载已熔断"));
+
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            Assert.fail("熔断后异步读操作应当失败");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause().getMessage().startsWith("数据加载已熔断"));
+        }
+
+        idSupplier.shutdown();
+    }
+
+
+    @Test
+    public void testSharedLoadScheduler() throws InterruptedException {
+        SupplierLoadScheduler scheduler = new SupplierLoadScheduler("test-scheduler", 2);
+        Set<String> loaderThreads = ConcurrentHashMap.newKeySet();
+
+        // 8个生产者共享2个加载线程
+        List<DefaultRingBufferSupplier<List<Long>, Long>> suppliers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            DefaultRingBufferSupplier<List<Long>, Long> idSupplier = RingBufferSupplierBuilder
+                    .<List<Long>, Long>newBatchBuilder(size -> {
+                        loaderThreads.add(Thread.currentThread().getName());
+                        return idRepository.batchGetIds(size, false);
+                    })
+                    .name("shared-" + i)
+                    .bufferSize(64)
+                    .loadScheduler(scheduler)
+                    .build();
+            idSupplier.setLoadBatchSize(32);
+            idSupplier.start();
+            suppliers.add(idSupplier);
+        }
+
+        // 每个生产者一个读线程，获取500次
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (DefaultRingBufferSupplier<List<Long>, Long> idSupplier : suppliers) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    ids.add(idSupplier.get());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        DefaultRingBufferSupplier<List<Long>, Long> running = suppliers.remove(0);
+        suppliers.forEach(DefaultRingBufferSupplier::shutdown);
+        System.out.println("生成ID数量: " + ids.size() + "，加载线程: " + loaderThreads);
+        Assert.assertEquals(4000, ids.size());
+        Assert.assertTrue(loaderThreads.stream().allMatch(name -> name.startsWith("test-scheduler-")));
+
+        scheduler.shutdown();
+        Assert.assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+
+        // 调度器停止后，仍在运行的生产者可以读取剩余数据，读取完后立即失败，不会等待加载
+        long start = System.nanoTime();
+        int remaining = 0;
+        try {
+            for (int j = 0; j <= 64; j++) {
+                Assert.assertNotNull(running.get());
+                remaining++;
+            }
+            Assert.fail("调度器停止后读操作应当失败");
+        } catch (IllegalStateException e) {
+            System.out.println("调度器停止后读取剩余数据: " + remaining + "，读操作失败: " + e.getCause().getMessage());
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        }
+        running.shutdown();
+
+        // 未指定线程池时，自行创建的加载线程在关闭生产者后退出
+        AtomicReference<Thread> loaderThread = new AtomicReference<>();
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(16, true, () -> {
+            loaderThread.set(Thread.currentThread());
+            return idRepository.batchGetIds(8, false);
+        });
+        idSupplier.start();
+        Assert.assertNotNull(idSupplier.get());
+        idSupplier.shutdown();
+        loaderThread.get().join(1000);
+        Assert.assertFalse(loaderThread.get().isAlive());
+    }
+
+
+
+    @Test
+    public void testVirtualThreadLoader() throws Exception {
+        AtomicReference<Thread> loaderThread = new AtomicReference<>();
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = RingBufferSupplierBuilder
+                .<List<Long>, Long>newBatchBuilder(size -> {
+                    loaderThread.set(Thread.currentThread());
+                    return idRepository.batchGetIds(size, false);
+                })
+                .name("virtual")
+                .bufferSize(64)
+                .virtualThreadLoader(true)
+                .build();
+        idSupplier.start();
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(idSupplier.get());
+        }
+        idSupplier.shutdown();
+        Assert.assertEquals(1000, ids.size());
+
+        // JDK 21以下不支持虚拟线程，使用平台线程加载，只校验读取结果
+        Method isVirtual;
+        try {
+            isVirtual = Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            isVirtual = null;
+        }
+        System.out.println("加载线程: " + loaderThread.get() + "，支持虚拟线程: " + (isVirtual != null));
+        Assume.assumeTrue("JDK 21以下不支持虚拟线程", isVirtual != null);
+
+        Assert.assertTrue((boolean) isVirtual.invoke(loaderThread.get()));
+        Assert.assertTrue(loaderThread.get().getName().startsWith("virtual-loader-"));
+    }
+
+
+
+    @Test
+    public void testShutdownGracefully() throws InterruptedException {
+        AtomicReference<Thread> loaderThread = new AtomicReference<>();
+        DefaultRingBufferSupplier<List<Long>, Long> idSupplier = new DefaultRingBufferSupplier<>(64, true, () -> {
+            loaderThread.set(Thread.currentThread());
+            return idRepository.batchGetIds(32, false);
+        });
+        idSupplier.start();
+
+        // 读取一部分后优雅关闭，没有读操作时等待到超时，取出剩余的ID
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            ids.add(idSupplier.get());
+        }
+        List<Long> unconsumed = idSupplier.shutdownGracefully(Duration.ofMillis(200));
+        ids.addAll(unconsumed);
+        System.out.println("已读取: 40，未读取: " + unconsumed.size() + "，DB中已申请: " + idRepository.table.get());
+
+        // 已申请的ID要么被读取，要么被取出，不会丢失
+        Assert.assertFalse(idSupplier.isRunning());
+        Assert.assertEquals(40 + unconsumed.size(), ids.size());
+        Assert.assertEquals(idRepository.table.get(), ids.size());
+
+        // 自行创建的加载线程池终止，线程池终止后加载线程可能还未完全退出
+        Assert.assertTrue(idSupplier.awaitTermination(1, TimeUnit.SECONDS));
+        loaderThread.get().join(1000);
+        Assert.assertFalse(loaderThread.get().isAlive());
+    }
+
+
+
     static class IdRepository {
 
         private final AtomicLong table = new AtomicLong(0L);
@@ -65,7 +1016,19 @@ public class RingBufferSupplierTest {
          * @return 取值
          */
         public List<Long> batchGetIds(int size) {
-            System.out.println("触发模拟DB读取");
+            return batchGetIds(size, true);
+        }
+
+        /**
+         * 模拟批量从DB读取id
+         * @param size 读取的id数量
+         * @param verbose 是否打印读取日志
+         * @return 取值
+         */
+        public List<Long> batchGetIds(int size, boolean verbose) {
+            if (verbose) {
+                System.out.println("触发模拟DB读取");
+            }
 
             List<Long> ids = new ArrayList<>();
             for (int i = 0; i < size; i++) {
@@ -75,6 +1038,20 @@ public class RingBufferSupplierTest {
             return ids;
         }
 
+        /**
+         * 模拟批量从DB读取一段连续的id
+         * @param size 读取的id数量
+         * @return 取值
+         */
+        public long[] batchGetIdArray(int size) {
+            long end = table.addAndGet(size);
+            long[] ids = new long[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = end - size + 1 + i;
+            }
+            return ids;
+        }
+
 
     }
 
@@ -0,0 +1,162 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.buffer.DefaultSegmentBufferedSupplier;
+import org.limbo.utils.concurrent.buffer.Segment;
+import org.limbo.utils.concurrent.buffer.SegmentBufferedSupplier;
+import org.limbo.utils.concurrent.buffer.SupplierMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class SegmentBufferedSupplierTest {
+
+    @Test
+    public void testSegmentBufferedSupplier() throws InterruptedException {
+
+        // 模拟DB号段表，每次申请100个ID
+        int step = 100;
+        AtomicLong maxId = new AtomicLong(0L);
+        AtomicInteger loadTimes = new AtomicInteger(0);
+        DefaultSegmentBufferedSupplier idSupplier = new DefaultSegmentBufferedSupplier(false, () -> {
+            loadTimes.incrementAndGet();
+            long end = maxId.addAndGet(step);
+            System.out.println("触发模拟DB申请号段: [" + (end - step + 1) + ", " + end + "]");
+            return Segment.range(end - step + 1, end + 1);
+        });
+        idSupplier.start();
+
+        // 启动8个线程，每个线程获取1000次
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    ids.add(idSupplier.getAsLong());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 等待所有线程执行完成
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        idSupplier.shutdown();
+        System.out.println("生成ID数量: " + ids.size() + "，申请号段次数: " + loadTimes.get());
+        Assert.assertEquals(8000, ids.size());
+        // 最多预加载一个号段，号段不会被浪费
+        Assert.assertTrue(loadTimes.get() <= 8000 / step + 1);
+    }
+
+
+    /**
+     * 号段加载期间再次下发的加载许可，在号段发布后被跳过，不计入加载次数与加载耗时
+     */
+    @Test
+    public void testSkipCoalescedLoad() throws InterruptedException {
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        AtomicInteger loadTimes = new AtomicInteger(0);
+        DefaultSegmentBufferedSupplier idSupplier = new DefaultSegmentBufferedSupplier(false, () -> {
+            int times = loadTimes.incrementAndGet();
+            try {
+                loadLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Segment.range(times * 100L - 99, times * 100L + 1);
+        });
+        idSupplier.setMetricsEnabled(true);
+        idSupplier.start();
+
+        // 第一个读操作触发加载，加载过程中第二个读操作再次下发加载许可
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Thread first = new Thread(() -> ids.add(idSupplier.getAsLong()));
+        first.start();
+        while (loadTimes.get() < 1) {
+            Thread.sleep(1);
+        }
+        Thread second = new Thread(() -> ids.add(idSupplier.getAsLong()));
+        second.start();
+        while (second.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        // 号段发布后，合并的加载许可因已有足够的值被跳过
+        loadLatch.countDown();
+        first.join(1000);
+        second.join(1000);
+        Thread.sleep(100);
+        Assert.assertEquals(2, ids.size());
+
+        SupplierMetrics metrics = idSupplier.getMetrics();
+        System.out.println("申请号段次数: " + loadTimes.get() + "，加载次数: " + metrics.getLoads());
+        Assert.assertEquals(1, loadTimes.get());
+        Assert.assertEquals(1, metrics.getLoads());
+        Assert.assertEquals(1, Arrays.stream(metrics.getLoadLatencyHistogram()).sum());
+
+        idSupplier.shutdown();
+    }
+
+
+    @Test
+    public void testPublishSegmentInOrder() {
+        ManualSegmentSupplier idSupplier = new ManualSegmentSupplier();
+        idSupplier.start();
+
+        // 当前号段未读取完时连续发布多个号段，后发布的号段排队，不会覆盖
+        idSupplier.publish(Segment.range(1, 11));
+        idSupplier.publish(Segment.range(11, 21));
+        idSupplier.publish(Segment.range(21, 31));
+        Assert.assertEquals(30, idSupplier.getBufferSize());
+
+        for (long expected = 1; expected <= 30; expected++) {
+            Assert.assertEquals(expected, idSupplier.getAsLong());
+        }
+        idSupplier.shutdown();
+    }
+
+
+    @Test
+    public void testSegmentStep() {
+        Segment segment = new Segment(10, 5, 3);
+        Assert.assertEquals(10, segment.valueAt(0));
+        Assert.assertEquals(20, segment.valueAt(2));
+        Assert.assertEquals(4, Segment.range(1, 5).getCount());
+    }
+
+
+    /**
+     * 只能手动发布号段的生产者
+     */
+    private static class ManualSegmentSupplier extends SegmentBufferedSupplier {
+
+        ManualSegmentSupplier() {
+            super(false);
+        }
+
+        void publish(Segment segment) {
+            publishSegment(segment);
+        }
+
+        @Override
+        protected Segment loadSegment() {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.buffer.DefaultRingBufferSupplier;
+import org.limbo.utils.concurrent.buffer.ShardedBufferedSupplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class ShardedBufferedSupplierTest {
+
+    @Test
+    public void testShardedBufferedSupplier() throws InterruptedException {
+
+        // 4个分片共享同一张模拟DB表
+        AtomicLong table = new AtomicLong(0L);
+        ShardedBufferedSupplier<Long> idSupplier = ShardedBufferedSupplier.create(4,
+                shard -> new DefaultRingBufferSupplier<List<Long>, Long>(64, true, () -> {
+                    List<Long> ids = new ArrayList<>(32);
+                    long end = table.addAndGet(32);
+                    for (long id = end - 31; id <= end; id++) {
+                        ids.add(id);
+                    }
+                    return ids;
+                }));
+        idSupplier.start();
+
+        // 启动8个线程，每个线程逐个获取500次，再批量获取500个
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger count = new AtomicInteger(0);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    ids.add(idSupplier.get());
+                    count.incrementAndGet();
+                }
+                List<Long> batch = idSupplier.get(500);
+                ids.addAll(batch);
+                count.addAndGet(batch.size());
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 等待所有线程执行完成
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        idSupplier.shutdown();
+        System.out.println("生成ID数量: " + ids.size() + "，分片数: " + idSupplier.getShards().size());
+        Assert.assertEquals(8000, count.get());
+        Assert.assertEquals(8000, ids.size());
+        Assert.assertTrue(idSupplier.getShards().stream().noneMatch(shard -> shard.isRunning()));
+    }
+
+
+    @Test
+    public void testStealFromNeighbour() {
+
+        // 只有分片0有数据，其他分片的读线程从分片0窃取
+        ShardedBufferedSupplier<Long> idSupplier = ShardedBufferedSupplier.create(4, shard -> {
+            AtomicLong next = new AtomicLong(shard * 1000L);
+            return new DefaultRingBufferSupplier<List<Long>, Long>(16, true, () -> {
+                List<Long> ids = new ArrayList<>();
+                if (shard == 0) {
+                    for (int i = 0; i < 8; i++) {
+                        ids.add(next.incrementAndGet());
+                    }
+                }
+                return ids;
+            });
+        });
+        idSupplier.start();
+
+        long id = 0;
+        for (int i = 0; i < 100 && id == 0; i++) {
+            id = idSupplier.tryGet().orElse(0L);
+            Thread.yield();
+        }
+        System.out.println("窃取到的ID: " + id);
+        Assert.assertTrue(id > 0 && id < 1000);
+
+        idSupplier.shutdown();
+    }
+
+}
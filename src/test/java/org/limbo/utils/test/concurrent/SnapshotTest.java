@@ -0,0 +1,76 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.Snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class SnapshotTest {
+
+    @Test
+    public void testSnapshot() throws InterruptedException {
+
+        // 配置中的两个值始终同时更新
+        Snapshot<Map<String, Integer>> config = new Snapshot<>(newConfig(0));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger inconsistent = new AtomicInteger(0);
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    Map<String, Integer> snapshot = config.get();
+                    if (!snapshot.get("a").equals(snapshot.get("b"))) {
+                        inconsistent.incrementAndGet();
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        // 4个写线程并发更新，每个更新1000次
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread writer = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    config.update(current -> newConfig(current.get("a") + 1));
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        System.out.println("最终版本: " + config.get() + "，读取到不一致状态次数: " + inconsistent.get());
+        Assert.assertEquals(0, inconsistent.get());
+        // 并发更新不会丢失
+        Assert.assertEquals(Integer.valueOf(4000), config.read(snapshot -> snapshot.get("a")));
+    }
+
+
+    private static Map<String, Integer> newConfig(int version) {
+        Map<String, Integer> config = new HashMap<>();
+        config.put("a", version);
+        config.put("b", version);
+        return Collections.unmodifiableMap(config);
+    }
+
+}
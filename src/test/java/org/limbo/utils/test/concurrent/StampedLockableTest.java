@@ -0,0 +1,59 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.Lockable;
+import org.limbo.utils.concurrent.StampedLockable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class StampedLockableTest {
+
+    @Test
+    public void testOptimisticRead() throws InterruptedException {
+
+        // 写操作原地修改两个字段，读操作校验两个字段始终一致
+        int[] pair = new int[2];
+        StampedLockable<int[]> lockable = new StampedLockable<>(pair);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger inconsistent = new AtomicInteger(0);
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    boolean consistent = lockable.invoke(value -> value[0] == value[1], Lockable.Mode.READ);
+                    if (!consistent) {
+                        inconsistent.incrementAndGet();
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        for (int i = 0; i < 100000; i++) {
+            lockable.run(value -> {
+                value[0]++;
+                value[1]++;
+            }, Lockable.Mode.WRITE);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        System.out.println("写入次数: " + pair[0] + "，读取到不一致状态次数: " + inconsistent.get());
+        Assert.assertEquals(100000, pair[0]);
+        Assert.assertEquals(0, inconsistent.get());
+        Assert.assertEquals(Integer.valueOf(100000), lockable.invoke(value -> value[1], Lockable.Mode.READ));
+    }
+
+}
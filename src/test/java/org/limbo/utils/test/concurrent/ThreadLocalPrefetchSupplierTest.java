@@ -0,0 +1,177 @@
+package org.limbo.utils.test.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.concurrent.buffer.DefaultRingBufferSupplier;
+import org.limbo.utils.concurrent.buffer.ThreadLocalPrefetchSupplier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class ThreadLocalPrefetchSupplierTest {
+
+    @Test
+    public void testThreadLocalPrefetch() throws InterruptedException {
+
+        // 统计从被包装的生产者批量读取的次数
+        AtomicLong table = new AtomicLong(0L);
+        AtomicInteger claimTimes = new AtomicInteger(0);
+        DefaultRingBufferSupplier<List<Long>, Long> delegate = new DefaultRingBufferSupplier<List<Long>, Long>(256, true, () -> {
+            List<Long> ids = new ArrayList<>(128);
+            long end = table.addAndGet(128);
+            for (long id = end - 127; id <= end; id++) {
+                ids.add(id);
+            }
+            return ids;
+        }) {
+            @Override
+            public List<Long> get(int n) {
+                claimTimes.incrementAndGet();
+                return super.get(n);
+            }
+        };
+        ThreadLocalPrefetchSupplier<Long> idSupplier = new ThreadLocalPrefetchSupplier<>(delegate, 32);
+        idSupplier.start();
+
+        // 启动8个线程，每个线程获取1000次
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    ids.add(idSupplier.get());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 等待所有线程执行完成
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        System.out.println("生成ID数量: " + ids.size() + "，批量读取次数: " + claimTimes.get());
+        Assert.assertEquals(8000, ids.size());
+        // 每个线程每32次读取只访问一次被包装的生产者
+        Assert.assertEquals(8 * ((1000 + 31) / 32), claimTimes.get());
+
+        // 当前线程预取一批，线程本地缓存中还有未读取的元素
+        Assert.assertNotNull(idSupplier.get());
+        Assert.assertEquals(8 * ((1000 + 31) / 32) + 1, claimTimes.get());
+
+        // 关闭后丢弃线程本地缓存，读取失败
+        idSupplier.shutdown();
+        Assert.assertFalse(delegate.isRunning());
+        try {
+            idSupplier.get();
+            Assert.fail("关闭后不应读取到线程本地缓存的元素");
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+
+    /**
+     * 被包装的生产者没有返回元素时，立即失败，不会再次等待被包装的生产者
+     */
+    @Test
+    public void testEmptyPrefetch() {
+        AtomicInteger singleGets = new AtomicInteger(0);
+        DefaultRingBufferSupplier<List<Long>, Long> delegate = new DefaultRingBufferSupplier<List<Long>, Long>(16, false, () -> {
+            throw new IllegalStateException("不应加载数据");
+        }) {
+            @Override
+            public List<Long> get(int n) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Long get() {
+                singleGets.incrementAndGet();
+                return null;
+            }
+        };
+        ThreadLocalPrefetchSupplier<Long> idSupplier = new ThreadLocalPrefetchSupplier<>(delegate, 32);
+        idSupplier.start();
+
+        try {
+            idSupplier.get();
+            Assert.fail("没有预取到元素时应当失败");
+        } catch (IllegalStateException e) {
+            System.out.println(e.getCause().getMessage());
+            Assert.assertTrue(e.getCause().getMessage().startsWith("预取数据失败"));
+        }
+        Assert.assertEquals(0, singleGets.get());
+
+        idSupplier.shutdown();
+    }
+
+
+    /**
+     * 预取期间生产者被关闭，预取到的元素在关闭后不会被读取
+     */
+    @Test
+    public void testShutdownDuringPrefetch() throws InterruptedException {
+        AtomicLong table = new AtomicLong(0L);
+        CountDownLatch prefetched = new CountDownLatch(1);
+        CountDownLatch shutdown = new CountDownLatch(1);
+        DefaultRingBufferSupplier<List<Long>, Long> delegate = new DefaultRingBufferSupplier<List<Long>, Long>(64, true, () -> {
+            List<Long> ids = new ArrayList<>(32);
+            long end = table.addAndGet(32);
+            for (long id = end - 31; id <= end; id++) {
+                ids.add(id);
+            }
+            return ids;
+        }) {
+            @Override
+            public List<Long> get(int n) {
+                // 取出数据后，等待生产者被关闭再返回
+                List<Long> values = super.get(n);
+                prefetched.countDown();
+                try {
+                    shutdown.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return values;
+            }
+        };
+        ThreadLocalPrefetchSupplier<Long> idSupplier = new ThreadLocalPrefetchSupplier<>(delegate, 32);
+        idSupplier.start();
+
+        // 第一次读取返回关闭前预取的元素，之后的读取不会读到线程本地缓存中剩余的元素
+        AtomicReference<Long> first = new AtomicReference<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            first.set(idSupplier.get());
+            try {
+                idSupplier.get();
+            } catch (IllegalStateException e) {
+                error.set(e);
+            }
+        });
+        reader.start();
+
+        prefetched.await();
+        idSupplier.shutdown();
+        shutdown.countDown();
+        reader.join(1000);
+
+        Assert.assertEquals(Long.valueOf(1L), first.get());
+        Assert.assertNotNull(error.get());
+        System.out.println(error.get().getCause().getMessage());
+    }
+
+}
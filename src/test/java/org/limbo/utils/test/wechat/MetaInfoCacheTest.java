@@ -0,0 +1,176 @@
+package org.limbo.utils.test.wechat;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.wechat.XmlDataConverter;
+import org.limbo.utils.wechat.annotations.WeChatApiField;
+import org.limbo.utils.wechat.cache.MetaInfoCache;
+import org.limbo.utils.wechat.cache.RequestMetaInfo;
+import org.limbo.utils.wechat.cache.ResponseMetaInfo;
+import org.limbo.utils.wechat.request.MiniProgramPayOrderQueryRequest;
+import org.limbo.utils.wechat.request.MiniProgramPayRefundRequest;
+import org.limbo.utils.wechat.request.WeChatRequest;
+import org.limbo.utils.wechat.response.MiniProgramPayOrderQueryResponse;
+import org.limbo.utils.wechat.response.MiniProgramPayRefundResponse;
+import org.limbo.utils.wechat.response.WeChatResponse;
+
+import java.util.Map;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class MetaInfoCacheTest {
+
+    @Test
+    public void testCompiledGetter() throws Exception {
+        MiniProgramPayRefundRequest request = new MiniProgramPayRefundRequest();
+        request.setAppid("wx-app");
+        request.setMchId("1900000109");
+        request.setOutTradeNo("order-1");
+        request.setOutRefundNo("refund-1");
+        request.setTotalFee(100);
+        request.setRefundFee(50);
+
+        // 编译后的getter与反射调用的结果一致，包括父类的字段与未设置的字段
+        RequestMetaInfo metaInfo = MetaInfoCache.parseRequest(MiniProgramPayRefundRequest.class);
+        for (Map.Entry<String, RequestMetaInfo.RequestParamInfo> entry : metaInfo.getParamInfo().entrySet()) {
+            RequestMetaInfo.RequestParamInfo paramInfo = entry.getValue();
+            Assert.assertEquals(entry.getKey(), paramInfo.getGetter().invoke(request), paramInfo.getCompiledGetter().apply(request));
+        }
+        Assert.assertEquals(100, metaInfo.getParamInfo().get("total_fee").getCompiledGetter().apply(request));
+
+        // 序列化时通过编译后的getter读取字段
+        String xml = new XmlDataConverter<MiniProgramPayRefundRequest, MiniProgramPayRefundResponse>(
+                MiniProgramPayRefundRequest.class, MiniProgramPayRefundResponse.class).serialize(request);
+        System.out.println(xml);
+        Assert.assertTrue(xml.contains("<appid>wx-app</appid>"));
+        Assert.assertTrue(xml.contains("<out_refund_no>refund-1</out_refund_no>"));
+        Assert.assertTrue(xml.contains("<total_fee>100</total_fee>"));
+        Assert.assertTrue(xml.contains("<refund_fee>50</refund_fee>"));
+        Assert.assertFalse(xml.contains("<sign>"));
+    }
+
+
+    @Test
+    public void testCompiledSetter() {
+        // 反序列化时通过编译后的setter设置字段，包装类型的字段由字符串转换
+        String xml = "<xml>"
+                + "<return_code><![CDATA[SUCCESS]]></return_code>"
+                + "<appid>wx-app</appid>"
+                + "<out_trade_no>order-1</out_trade_no>"
+                + "<total_fee>100</total_fee>"
+                + "<unknown>ignored</unknown>"
+                + "</xml>";
+        MiniProgramPayOrderQueryResponse response = new XmlDataConverter<MiniProgramPayOrderQueryRequest, MiniProgramPayOrderQueryResponse>(
+                null, MiniProgramPayOrderQueryResponse.class).deserialize(xml);
+        System.out.println(response);
+        Assert.assertEquals("SUCCESS", response.getReturnCode());
+        Assert.assertEquals("wx-app", response.getAppid());
+        Assert.assertEquals("order-1", response.getOutTradeNo());
+        Assert.assertEquals(Integer.valueOf(100), response.getTotalFee());
+    }
+
+
+    @Test
+    public void testPrimitiveSetter() {
+        // 基本类型的setter，装箱的值会被拆箱
+        String xml = "<xml><count>3</count><amount>10000000000</amount><enabled>true</enabled><boxed>7</boxed></xml>";
+        PrimitiveResponse response = new XmlDataConverter<PrimitiveRequest, PrimitiveResponse>(
+                null, PrimitiveResponse.class).deserialize(xml);
+        System.out.println(response);
+        Assert.assertEquals(3, response.getCount());
+        Assert.assertEquals(10000000000L, response.getAmount());
+        Assert.assertTrue(response.isEnabled());
+        Assert.assertEquals(Integer.valueOf(7), response.getBoxed());
+
+        // 包装类型的字段可以设置为null
+        ResponseMetaInfo metaInfo = MetaInfoCache.parseResponse(PrimitiveResponse.class);
+        metaInfo.getParamInfo().get("boxed").getCompiledSetter().accept(response, null);
+        Assert.assertNull(response.getBoxed());
+    }
+
+
+    @Test
+    public void testNonPublicClass() {
+        // 非public的类无法生成lambda实现类，退化为MethodHandle调用
+        HiddenResponse response = new HiddenResponse();
+        ResponseMetaInfo metaInfo = MetaInfoCache.parseResponse(HiddenResponse.class);
+        metaInfo.getParamInfo().get("code").getCompiledSetter().accept(response, "hidden");
+        metaInfo.getParamInfo().get("count").getCompiledSetter().accept(response, 5);
+        metaInfo.getParamInfo().get("return_code").getCompiledSetter().accept(response, "SUCCESS");
+        Assert.assertEquals("hidden", response.getCode());
+        Assert.assertEquals(5, response.getCount());
+        Assert.assertEquals("SUCCESS", response.getReturnCode());
+
+        HiddenRequest request = new HiddenRequest();
+        request.setCode("hidden");
+        request.setCount(5);
+        RequestMetaInfo requestMetaInfo = MetaInfoCache.parseRequest(HiddenRequest.class);
+        Assert.assertEquals("hidden", requestMetaInfo.getParamInfo().get("code").getCompiledGetter().apply(request));
+        Assert.assertEquals(5, requestMetaInfo.getParamInfo().get("count").getCompiledGetter().apply(request));
+    }
+
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class PrimitiveResponse extends WeChatResponse {
+
+        @WeChatApiField
+        private int count;
+
+        @WeChatApiField
+        private long amount;
+
+        @WeChatApiField
+        private boolean enabled;
+
+        @WeChatApiField
+        private Integer boxed;
+
+    }
+
+
+    public static class PrimitiveRequest extends WeChatRequest<PrimitiveResponse> {
+
+        @Override
+        public Class<PrimitiveResponse> getResponseClass() {
+            return PrimitiveResponse.class;
+        }
+
+    }
+
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class HiddenResponse extends WeChatResponse {
+
+        @WeChatApiField
+        private String code;
+
+        @WeChatApiField
+        private int count;
+
+    }
+
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class HiddenRequest extends WeChatRequest<HiddenResponse> {
+
+        @WeChatApiField
+        private String code;
+
+        @WeChatApiField
+        private int count;
+
+        @Override
+        public Class<HiddenResponse> getResponseClass() {
+            return HiddenResponse.class;
+        }
+
+    }
+
+}
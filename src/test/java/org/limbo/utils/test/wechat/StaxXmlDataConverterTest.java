@@ -0,0 +1,146 @@
+package org.limbo.utils.test.wechat;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.limbo.utils.wechat.StaxXmlDataConverter;
+import org.limbo.utils.wechat.XmlDataConverter;
+import org.limbo.utils.wechat.request.MiniProgramPayOrderQueryRequest;
+import org.limbo.utils.wechat.request.MiniProgramPayRefundRequest;
+import org.limbo.utils.wechat.request.WeChatRequest;
+import org.limbo.utils.wechat.response.MiniProgramPayOrderQueryResponse;
+import org.limbo.utils.wechat.response.MiniProgramPayRefundResponse;
+import org.limbo.utils.wechat.response.MiniProgramUnifiedOrderCallbackResponse;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * @author Brozen
+ * @since 2026-10-18
+ */
+public class StaxXmlDataConverterTest {
+
+    /**
+     * 支付回调报文，包含CDATA、空白、未声明的标签
+     */
+    private static final String CALLBACK_XML = "<?xml version=\"1.0\" encoding=\"GBK\"?>\n"
+            + "<xml>\n"
+            + "  <appid><![CDATA[wx2421b1c4370ec43b]]></appid>\n"
+            + "  <attach><![CDATA[支付测试]]></attach>\n"
+            + "  <bank_type><![CDATA[CFT]]></bank_type>\n"
+            + "  <fee_type><![CDATA[CNY]]></fee_type>\n"
+            + "  <is_subscribe><![CDATA[Y]]></is_subscribe>\n"
+            + "  <mch_id><![CDATA[10000100]]></mch_id>\n"
+            + "  <nonce_str><![CDATA[5d2b6c2a8db53831f7eda20af46e531c]]></nonce_str>\n"
+            + "  <openid><![CDATA[oUpF8uMEb4qRXf22hE3X68TekukE]]></openid>\n"
+            + "  <out_trade_no><![CDATA[1409811653]]></out_trade_no>\n"
+            + "  <result_code><![CDATA[SUCCESS]]></result_code>\n"
+            + "  <return_code><![CDATA[SUCCESS]]></return_code>\n"
+            + "  <sign><![CDATA[B552ED6B279343CB493C5DD0D78AB241]]></sign>\n"
+            + "  <time_end><![CDATA[20140903131540]]></time_end>\n"
+            + "  <total_fee>1</total_fee>\n"
+            + "  <coupon_fee><![CDATA[10]]></coupon_fee>\n"
+            + "  <coupon_count><![CDATA[1]]></coupon_count>\n"
+            + "  <coupon_type><![CDATA[CASH]]></coupon_type>\n"
+            + "  <coupon_id><![CDATA[10000]]></coupon_id>\n"
+            + "  <trade_type><![CDATA[JSAPI]]></trade_type>\n"
+            + "  <transaction_id><![CDATA[1004400740201409030005092168]]></transaction_id>\n"
+            + "</xml>";
+
+
+    @Test
+    public void testSameAsJdom() {
+        MiniProgramUnifiedOrderCallbackResponse jdom = new XmlDataConverter<CallbackRequest, MiniProgramUnifiedOrderCallbackResponse>(
+                null, MiniProgramUnifiedOrderCallbackResponse.class).deserialize(CALLBACK_XML);
+        MiniProgramUnifiedOrderCallbackResponse stax = new StaxXmlDataConverter<CallbackRequest, MiniProgramUnifiedOrderCallbackResponse>(
+                null, MiniProgramUnifiedOrderCallbackResponse.class).deserialize(CALLBACK_XML);
+
+        System.out.println(stax);
+        Assert.assertEquals(jdom, stax);
+        Assert.assertEquals("支付测试", stax.getAttach());
+        Assert.assertEquals(Integer.valueOf(10), stax.getCouponFee());
+        Assert.assertEquals("1", stax.getTotalFee());
+    }
+
+
+    @Test
+    public void testIntegerFieldSameAsJdom() {
+        String xml = "<xml>"
+                + "<return_code>SUCCESS</return_code>"
+                + "<result_code>SUCCESS</result_code>"
+                + "<trade_state>SUCCESS</trade_state>"
+                + "<out_trade_no>order-1</out_trade_no>"
+                + "<total_fee> 101 </total_fee>"
+                + "<cash_fee>100</cash_fee>"
+                + "<coupon_count>1</coupon_count>"
+                + "</xml>";
+        MiniProgramPayOrderQueryResponse jdom = new XmlDataConverter<MiniProgramPayOrderQueryRequest, MiniProgramPayOrderQueryResponse>(
+                null, MiniProgramPayOrderQueryResponse.class).deserialize(xml);
+        MiniProgramPayOrderQueryResponse stax = new StaxXmlDataConverter<MiniProgramPayOrderQueryRequest, MiniProgramPayOrderQueryResponse>(
+                null, MiniProgramPayOrderQueryResponse.class).deserialize(xml);
+
+        Assert.assertEquals(jdom, stax);
+        Assert.assertEquals(Integer.valueOf(101), stax.getTotalFee());
+        Assert.assertEquals("order-1", stax.getOutTradeNo());
+    }
+
+
+    @Test
+    public void testSerializeSameAsJdom() {
+        MiniProgramPayRefundRequest request = new MiniProgramPayRefundRequest();
+        request.setAppid("wx-app");
+        request.setMchId("1900000109");
+        request.setOutTradeNo("order-1");
+        request.setOutRefundNo("refund-1");
+        request.setTotalFee(100);
+        request.setRefundFee(50);
+
+        String jdom = new XmlDataConverter<MiniProgramPayRefundRequest, MiniProgramPayRefundResponse>(
+                MiniProgramPayRefundRequest.class, MiniProgramPayRefundResponse.class).serialize(request);
+        String stax = new StaxXmlDataConverter<MiniProgramPayRefundRequest, MiniProgramPayRefundResponse>(
+                MiniProgramPayRefundRequest.class, MiniProgramPayRefundResponse.class).serialize(request);
+        Assert.assertEquals(jdom, stax);
+    }
+
+
+    @Test
+    public void testRejectDoctype() {
+        // 外部实体注入，包含DOCTYPE声明的报文直接解析失败
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE xml [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>\n"
+                + "<xml><return_code>&xxe;</return_code></xml>";
+        StaxXmlDataConverter<MiniProgramPayOrderQueryRequest, MiniProgramPayOrderQueryResponse> converter
+                = new StaxXmlDataConverter<>(null, MiniProgramPayOrderQueryResponse.class);
+        try {
+            converter.deserialize(xml);
+            Assert.fail("包含DOCTYPE的报文应当解析失败");
+        } catch (IllegalStateException e) {
+            System.out.println(e.getCause());
+            Assert.assertTrue(e.getCause() instanceof XMLStreamException);
+        }
+
+        // 实体膨胀
+        String bomb = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE xml [<!ENTITY a \"aaaaaaaaaa\"><!ENTITY b \"&a;&a;&a;&a;&a;&a;&a;&a;&a;&a;\">]>\n"
+                + "<xml><return_code>&b;</return_code></xml>";
+        try {
+            converter.deserialize(bomb);
+            Assert.fail("包含DOCTYPE的报文应当解析失败");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof XMLStreamException);
+        }
+    }
+
+
+    /**
+     * 支付回调没有对应的请求，只用于声明转换器的类型
+     */
+    public static class CallbackRequest extends WeChatRequest<MiniProgramUnifiedOrderCallbackResponse> {
+
+        @Override
+        public Class<MiniProgramUnifiedOrderCallbackResponse> getResponseClass() {
+            return MiniProgramUnifiedOrderCallbackResponse.class;
+        }
+
+    }
+
+}